@@ -0,0 +1,245 @@
+
+/**
+ * Sends text to the console and to a file from one background thread, so
+ * the thread producing the text never waits on either of them.
+ *
+ * Text is encoded straight into 64 KB byte buffers, in the charset each
+ * destination expects (with a fast path for UTF-8). A full buffer
+ * is handed to the writer thread and an empty one taken back; the same 8
+ * buffers go round and round, so nothing is allocated while running. Only
+ * when all 8 are waiting to be written does the producer have to wait.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class BatchedOutput
+{
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BUFFERS = 8;
+    private static final int MAX_CHAR_BYTES = 8; // room kept for one encoded char
+
+    /**
+     * One buffer for each destination, filled and written together
+     */
+    private static class Batch
+    {
+        final byte[] console;
+        final byte[] file;
+        int consoleLength;
+        int fileLength;
+
+        Batch(int size)
+        {
+            console = new byte[size];
+            file = new byte[size];
+        }
+    }
+
+    // Handed to the writer thread to tell it to stop
+    private static final Batch END = new Batch(0);
+
+    private final OutputStream console;
+    private final OutputStream file;
+    private final Charset consoleCharset;
+    private final Charset fileCharset;
+    private final BlockingQueue<Batch> empty = new ArrayBlockingQueue<>(BUFFERS);
+    private final BlockingQueue<Batch> filled = new ArrayBlockingQueue<>(BUFFERS + 1);
+    private final Thread writer;
+    private volatile IOException failure;
+    private Batch current;
+
+    /**
+     * Starts the writer thread
+     *
+     * @param console Where token echo goes (usually System.out)
+     * @param consoleCharset How to encode text for the console
+     * @param file Where the file copy goes; closed by close()
+     * @param fileCharset How to encode text for the file
+     */
+    public BatchedOutput(OutputStream console, Charset consoleCharset, OutputStream file, Charset fileCharset)
+    {
+        this.console = console;
+        this.consoleCharset = consoleCharset;
+        this.file = file;
+        this.fileCharset = fileCharset;
+        for(int i = 1; i < BUFFERS; i++){
+            empty.add(new Batch(BUFFER_SIZE));
+        }
+        current = new Batch(BUFFER_SIZE);
+
+        writer = new Thread(this::writeBatches, "Lab01-output");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Echoes chars start..end-1 of text, plus a line break, to the console
+     * and to the file
+     *
+     * @param text The text holding the token
+     * @param start The first char of the token
+     * @param end The char after the token
+     * @throws IOException If the writer thread has failed or waiting is interrupted
+     */
+    public void token(CharSequence text, int start, int end) throws IOException
+    {
+        put(true, text, start, end);
+        put(false, text, start, end);
+    }
+
+    /**
+     * Writes a whole line, plus a line break, to the file only
+     *
+     * @param line The line to write
+     * @throws IOException If the writer thread has failed or waiting is interrupted
+     */
+    public void line(CharSequence line) throws IOException
+    {
+        put(false, line, 0, line.length());
+    }
+
+    /**
+     * Writes out everything still buffered, stops the writer thread and
+     * closes the file. The console is flushed but not closed.
+     *
+     * @throws IOException If anything could not be written
+     */
+    public void close() throws IOException
+    {
+        try{
+            filled.put(current);
+            filled.put(END);
+            writer.join();
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while closing output");
+        }
+        finally{
+            file.close();
+        }
+        if(failure != null) throw failure;
+    }
+
+    /**
+     * Encodes text[start..end) and a '\n' into the console or file buffer,
+     * swapping in an empty batch whenever that buffer fills up
+     */
+    private void put(boolean toConsole, CharSequence text, int start, int end) throws IOException
+    {
+        if(failure != null) throw failure;
+
+        Charset charset = toConsole ? consoleCharset : fileCharset;
+        boolean utf8 = charset.equals(StandardCharsets.UTF_8);
+        byte[] buf = toConsole ? current.console : current.file;
+        int pos = toConsole ? current.consoleLength : current.fileLength;
+        for(int i = start; i <= end; i++){
+            if(pos > BUFFER_SIZE - MAX_CHAR_BYTES){
+                setLength(toConsole, pos);
+                swap();
+                buf = toConsole ? current.console : current.file;
+                pos = 0;
+            }
+
+            char c = (i == end) ? '\n' : text.charAt(i);
+            if(c < 0x80){
+                buf[pos++] = (byte) c;
+            }
+            else if(!utf8){
+                // rare enough to let the charset do it; unmappable chars become '?'
+                int n = Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1)) ? 2 : 1;
+                byte[] bytes = text.subSequence(i, i + n).toString().getBytes(charset);
+                int len = Math.min(bytes.length, MAX_CHAR_BYTES);
+                System.arraycopy(bytes, 0, buf, pos, len);
+                pos += len;
+                i += n - 1;
+            }
+            else if(c < 0x800){
+                buf[pos++] = (byte) (0xC0 | c >> 6);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+            else if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))){
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | cp >> 18);
+                buf[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp & 0x3F);
+            }
+            else if(Character.isSurrogate(c)){
+                buf[pos++] = '?'; // an unpaired surrogate, as FileWriter would write it
+            }
+            else{
+                buf[pos++] = (byte) (0xE0 | c >> 12);
+                buf[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        setLength(toConsole, pos);
+    }
+
+    private void setLength(boolean toConsole, int length)
+    {
+        if(toConsole){
+            current.consoleLength = length;
+        }
+        else{
+            current.fileLength = length;
+        }
+    }
+
+    /**
+     * Hands the current batch to the writer thread and takes an empty one
+     */
+    private void swap() throws IOException
+    {
+        try{
+            filled.put(current);
+            current = empty.take();
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for output");
+        }
+        current.consoleLength = 0;
+        current.fileLength = 0;
+    }
+
+    /**
+     * The writer thread: writes batches in order until END arrives. After a
+     * write fails it keeps recycling batches so the producer is never stuck.
+     */
+    private void writeBatches()
+    {
+        try{
+            while(true){
+                Batch batch = filled.take();
+                if(batch == END) break;
+
+                if(failure == null){
+                    try{
+                        if(batch.consoleLength > 0){
+                            console.write(batch.console, 0, batch.consoleLength);
+                            console.flush();
+                        }
+                        if(batch.fileLength > 0) file.write(batch.file, 0, batch.fileLength);
+                    }
+                    catch(IOException e){
+                        failure = e;
+                    }
+                }
+                empty.offer(batch);
+            }
+        }
+        catch(InterruptedException e){
+            failure = new InterruptedIOException("output thread interrupted");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+
+/**
+ * Checks that BatchedOutput writes exactly the bytes the plain println and
+ * FileWriter path of the console mode writes, across many buffer swaps and
+ * in charsets other than UTF-8.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+public class BatchedOutputTest
+{
+    // ASCII, 2-, 3- and 4-byte UTF-8, characters most single-byte charsets
+    // cannot map, and a lone surrogate
+    private static final String[] PIECES = {
+        "a", "word", "Lab01", " ", "  ", "\t", "é", "ß", "€", "—", "日本", "😀", "x😀y", "\uD800", "\u3000"
+    };
+
+    private static List<String> randomLines(Random rnd, int count)
+    {
+        List<String> lines = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            StringBuilder sb = new StringBuilder();
+            for(int n = rnd.nextInt(30); n > 0; n--){
+                sb.append(PIECES[rnd.nextInt(PIECES.length)]);
+            }
+            lines.add(sb.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the lines the way the console loop does without -quiet:
+     * println for every token, and the line and its tokens to a Writer
+     */
+    private static byte[][] plain(List<String> lines, Charset consoleCharset, Charset fileCharset) throws IOException
+    {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(console, true, consoleCharset);
+        try(Writer b = new OutputStreamWriter(file, fileCharset)){
+            for(String line : lines){
+                b.write(line + "\n");
+                Scanner p = new Scanner(line);
+                while(p.hasNext()){
+                    String w = p.next();
+                    out.println(w);
+                    b.write(w + "\n");
+                }
+            }
+        }
+        return new byte[][] {console.toByteArray(), file.toByteArray()};
+    }
+
+    /**
+     * Writes the lines the way countConsoleQuiet() does
+     */
+    private static byte[][] batched(List<String> lines, Charset consoleCharset, Charset fileCharset) throws IOException
+    {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        BatchedOutput out = new BatchedOutput(console, consoleCharset, file, fileCharset);
+        for(String line : lines){
+            out.line(line);
+            int n = line.length();
+            int i = 0;
+            while(true){
+                while(i < n && Character.isWhitespace(line.charAt(i))) i++;
+                if(i == n) break;
+                int start = i;
+                while(i < n && !Character.isWhitespace(line.charAt(i))) i++;
+                out.token(line, start, i);
+            }
+        }
+        out.close();
+        return new byte[][] {console.toByteArray(), file.toByteArray()};
+    }
+
+    private static void assertSameBytes(List<String> lines, Charset consoleCharset, Charset fileCharset) throws IOException
+    {
+        byte[][] expected = plain(lines, consoleCharset, fileCharset);
+        byte[][] actual = batched(lines, consoleCharset, fileCharset);
+        assertArrayEquals(expected[0], actual[0]);
+        assertArrayEquals(expected[1], actual[1]);
+    }
+
+    @Test
+    @DisplayName("UTF-8: byte-for-byte the same as println, over many 64 KB buffer swaps")
+    void testUtf8() throws IOException
+    {
+        List<String> lines = randomLines(new Random(21), 20000);
+        assertSameBytes(lines, StandardCharsets.UTF_8, StandardCharsets.UTF_8);
+        assertTrue(plain(lines, StandardCharsets.UTF_8, StandardCharsets.UTF_8)[1].length > 8 * 65536);
+    }
+
+    @Test
+    @DisplayName("other charsets: unmappable characters become '?' exactly as with println")
+    void testOtherCharsets() throws IOException
+    {
+        List<String> lines = randomLines(new Random(210), 8000);
+        assertSameBytes(lines, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8);
+        assertSameBytes(lines, StandardCharsets.UTF_8, StandardCharsets.US_ASCII);
+        assertSameBytes(lines, Charset.forName("windows-1252"), Charset.forName("Shift_JIS"));
+    }
+
+    @Test
+    @DisplayName("no lines: nothing is written")
+    void testEmpty() throws IOException
+    {
+        byte[][] actual = batched(new ArrayList<>(), StandardCharsets.UTF_8, StandardCharsets.UTF_8);
+        assertEquals(0, actual[0].length);
+        assertEquals(0, actual[1].length);
+    }
+}
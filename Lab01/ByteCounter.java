@@ -0,0 +1,284 @@
+
+/**
+ * Counts lines, words and characters straight from the bytes of a file,
+ * giving the same totals as reading it with Scanner.nextLine() and
+ * splitting each line into tokens.
+ *
+ * Bytes can be fed in any number of pieces; a word or a "\r\n" split
+ * between two pieces is still counted once. Separate counters can also count
+ * neighbouring pieces at the same time and be merged with add(). Call
+ * finish() after the last piece so a final line without a line break is
+ * counted.
+ *
+ * Input is read as UTF-8: characters are counted the way String.length()
+ * counts them (a 4-byte sequence is two chars). Words are separated by
+ * whitespace as Character.isWhitespace() defines it, including the Unicode
+ * spaces U+1680, U+2000-U+2006, U+2008-U+200A, U+205F and U+3000. Lines end
+ * at "\n", "\r\n", "\r", U+0085, U+2028 and U+2029, the line separators
+ * Scanner.nextLine() knows. A multi-byte character cut between two pieces is
+ * still counted once.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import java.nio.ByteBuffer;
+
+public class ByteCounter
+{
+    // Flags describing one byte, packed into an int per byte value
+    private static final int CHARS = 3;      // UTF-16 chars the byte starts (0, 1 or 2)
+    private static final int WORD = 1 << 2;  // part of a word
+    private static final int LF = 1 << 3;    // '\n'
+    private static final int CR = 1 << 4;    // '\r'
+    private static final int NL = 1 << 5;    // U+0085, U+2028, U+2029
+    private static final int LEAD = 1 << 6;  // starts a sequence that may be a space or a line break
+
+    // How a character started by a LEAD byte is counted once it is complete
+    private static final int SPACE = 1;
+    private static final int OTHER = 1 | WORD;
+
+    private static final int[] FLAGS = new int[256];
+    private static final int BLOCK = 1 << 16;
+
+    static
+    {
+        for (int b = 0; b < 256; b++) FLAGS[b] = 1 | WORD;
+        for (int b = 0x80; b < 0xC0; b++) FLAGS[b] = WORD;     // continuation byte
+        for (int b = 0xF0; b < 0xF8; b++) FLAGS[b] = 2 | WORD; // 4-byte sequence: a surrogate pair
+        for (char c : new char[] {' ', '\t', '\u000B', '\f', '\u001C', '\u001D', '\u001E', '\u001F'})
+        {
+            FLAGS[c] = 1;
+        }
+        FLAGS['\n'] = LF;
+        FLAGS['\r'] = CR;
+        FLAGS[0xC2] = LEAD; // U+0085
+        FLAGS[0xE1] = LEAD; // U+1680
+        FLAGS[0xE2] = LEAD; // U+2000-U+200A, U+2028, U+2029, U+205F
+        FLAGS[0xE3] = LEAD; // U+3000
+    }
+
+    private long lineCount;
+    private long wordCount;
+    private long charCount;
+    private int first;      // flags of the first byte counted; 0 = nothing counted yet
+    private int last = LF;  // flags of the last byte counted; LF = at the start of a line
+    private int seq;        // bytes so far of a sequence started by a LEAD byte
+    private int need;       // continuation bytes still missing from seq
+    private int head;       // continuation bytes this counter started with, kept for add()
+    private int headLen;
+    private byte[] block;   // scratch space for count(ByteBuffer)
+
+    /**
+     * Counts the bytes from the buffer's position up to its limit.
+     * The buffer's position is not changed. The bytes are copied 64 KB at a
+     * time into an array, which is much faster to scan than a mapped buffer.
+     *
+     * @param buf The bytes to count
+     */
+    public void count(ByteBuffer buf)
+    {
+        if (block == null) block = new byte[BLOCK];
+        for (int pos = buf.position(), end = buf.limit(); pos < end; )
+        {
+            int n = Math.min(BLOCK, end - pos);
+            buf.get(pos, block, 0, n);
+            count(block, 0, n);
+            pos += n;
+        }
+    }
+
+    /**
+     * Counts len bytes of the array starting at off.
+     *
+     * @param bytes The array holding the bytes
+     * @param off The first byte to count
+     * @param len The number of bytes to count
+     */
+    public void count(byte[] bytes, int off, int len)
+    {
+        // Each byte is compared with the one before it instead of branching:
+        // a word starts where a word byte follows a non-word byte, and a line
+        // ends at every '\r' and at every '\n' that does not follow a '\r'.
+        // The few multi-byte sequences that may be spaces or line breaks, and
+        // the first bytes of the input, go through step() instead
+        int i = off, end = off + len;
+        while (i < end)
+        {
+            if (first == 0 || need > 0)
+            {
+                step(bytes[i++] & 0xFF);
+                continue;
+            }
+            int prev = last;
+            int lines = 0, words = 0, chars = 0;
+            for (; i < end; i++)
+            {
+                int f = FLAGS[bytes[i] & 0xFF];
+                if ((f & LEAD) != 0) break;
+                chars += f & CHARS;
+                words += ((f & ~prev) >>> 2) & 1;
+                lines += (((f & ~(prev >>> 1)) >>> 3) & 1) | (f >>> 4);
+                prev = f;
+            }
+            last = prev;
+            lineCount += lines;
+            wordCount += words;
+            charCount += chars;
+            if (i < end) step(bytes[i++] & 0xFF);
+        }
+    }
+
+    /**
+     * Ends the input: a last line that has no line break is counted.
+     */
+    public void finish()
+    {
+        if (need > 0) endSequence();
+        if (headLen > 0)
+        {
+            // stray continuation bytes at the very start count as part of a word
+            if ((first & WORD) == 0) wordCount++;
+            if (first == 0) first = last = WORD;
+            headLen = 0;
+        }
+        if (isInLine()) lineCount++;
+        last = LF;
+    }
+
+    /**
+     * Adds the counts of another counter that counted the bytes coming right
+     * after this one's, as if this counter had counted them itself. The
+     * other counter started out as if at the start of a line, so a word or
+     * a "\r\n" that was cut between the two is counted once here. Neither
+     * counter may have been finished yet, unless both were: adding finished
+     * counters (of separate files, say) simply sums their totals.
+     *
+     * @param other The counter for the next piece of the input
+     */
+    public void add(ByteCounter other)
+    {
+        // the other counter kept back the continuation bytes it started
+        // with; they may finish a character this counter was cut inside
+        for (int i = 0; i < other.headLen; i++) step((other.head >>> (8 * i)) & 0xFF);
+        if (other.first == 0 && other.need == 0) return;
+        if (need > 0) endSequence();
+
+        if (other.first != 0)
+        {
+            if ((last & WORD) != 0 && (other.first & WORD) != 0) wordCount--;
+            if ((last & CR) != 0 && (other.first & LF) != 0) lineCount--;
+            if (first == 0) first = other.first;
+            last = other.last;
+
+            lineCount += other.lineCount;
+            wordCount += other.wordCount;
+            charCount += other.charCount;
+        }
+        seq = other.seq;
+        need = other.need;
+    }
+
+    /**
+     * @return true if the bytes counted so far stop in the middle of a line,
+     *         which finish() would count as one more line
+     */
+    public boolean isInLine()
+    {
+        return (last & (LF | CR | NL)) == 0 || need > 0;
+    }
+
+    /**
+     * Counts one byte the slow way: collects the bytes of a sequence started
+     * by a LEAD byte until the character is known, and keeps back up to two
+     * continuation bytes the input starts with
+     */
+    private void step(int b)
+    {
+        boolean continuation = (b & 0xC0) == 0x80;
+        if (need > 0)
+        {
+            if (continuation)
+            {
+                seq = (seq << 8) | b;
+                if (--need == 0) counted(classify(seq));
+                return;
+            }
+            endSequence(); // cut short: not valid UTF-8
+        }
+        if (continuation && first == 0 && headLen < 2)
+        {
+            head |= b << (8 * headLen++);
+        }
+        else if ((FLAGS[b] & LEAD) != 0)
+        {
+            seq = b;
+            need = b < 0xE0 ? 1 : 2;
+        }
+        else
+        {
+            counted(FLAGS[b]);
+        }
+    }
+
+    /**
+     * Counts the character started by seq, which has ended early
+     */
+    private void endSequence()
+    {
+        need = 0;
+        counted(OTHER);
+    }
+
+    /**
+     * @return How the complete sequence seq is counted
+     */
+    private static int classify(int seq)
+    {
+        switch (seq)
+        {
+            case 0xC285: case 0xE280A8: case 0xE280A9:
+                return NL;
+            case 0xE19A80: case 0xE2819F: case 0xE38080:
+                return SPACE;
+            default:
+                // U+2000..U+200A except the no-break U+2007
+                return (seq >= 0xE28080 && seq <= 0xE2808A && seq != 0xE28087) ? SPACE : OTHER;
+        }
+    }
+
+    /**
+     * Counts one character (or one byte of a longer one) with flags f
+     */
+    private void counted(int f)
+    {
+        if (first == 0) first = f;
+        charCount += f & CHARS;
+        wordCount += ((f & ~last) >>> 2) & 1;
+        lineCount += (((f & ~(last >>> 1)) >>> 3) & 1) | ((f & (CR | NL)) != 0 ? 1 : 0);
+        last = f;
+    }
+
+    /**
+     * @return The number of lines counted so far
+     */
+    public long getLineCount()
+    {
+        return lineCount;
+    }
+
+    /**
+     * @return The number of words counted so far
+     */
+    public long getWordCount()
+    {
+        return wordCount;
+    }
+
+    /**
+     * @return The number of characters counted so far, line breaks excluded
+     */
+    public long getCharCount()
+    {
+        return charCount;
+    }
+}
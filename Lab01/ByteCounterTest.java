@@ -0,0 +1,155 @@
+
+/**
+ * Checks ByteCounter against the Scanner-based counting of the console
+ * mode: Scanner.nextLine() for lines, String.length() for characters and
+ * Scanner tokens for words.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Scanner;
+
+public class ByteCounterTest
+{
+    // Pieces random text is built from: ASCII words and whitespace, line
+    // breaks, 2-, 3- and 4-byte UTF-8 characters (the last one is a
+    // surrogate pair in a String), the Unicode spaces and line separators,
+    // and characters that share their first bytes but are neither
+    private static final String[] PIECES = {
+        "a", "bc", "word", " ", "  ", "\t", "\u000B", "\f", "\u001C",
+        "\n", "\r", "\r\n", "\n\n", "é", "€", "😀", "x😀y",
+        "\u3000", "\u2000", "\u2005", "\u200A", "\u1680", "\u205F",
+        "\u2028", "\u2029", "\u0085", "\r\u2028",
+        "\u2007", "\u00A0", "\u202F", "\u200B", "\u3001", "\u1681", "\u0086"
+    };
+
+    /**
+     * Counts text the way the console mode does
+     *
+     * @return {lines, words, chars}
+     */
+    static long[] scannerCounts(byte[] text)
+    {
+        long lines = 0, words = 0, chars = 0;
+        Scanner in = new Scanner(new ByteArrayInputStream(text), StandardCharsets.UTF_8);
+        while(in.hasNextLine()){
+            String line = in.nextLine();
+            lines++;
+            chars += line.length();
+            Scanner tokens = new Scanner(line);
+            while(tokens.hasNext()){
+                tokens.next();
+                words++;
+            }
+        }
+        return new long[] {lines, words, chars};
+    }
+
+    /**
+     * Builds random UTF-8 text out of about n pieces
+     */
+    static byte[] randomText(Random rnd, int n)
+    {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < n; i++){
+            sb.append(PIECES[rnd.nextInt(PIECES.length)]);
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long[] counts(ByteCounter c)
+    {
+        return new long[] {c.getLineCount(), c.getWordCount(), c.getCharCount()};
+    }
+
+    /**
+     * Counts text fed in pieces of chunk bytes
+     */
+    private static long[] countInChunks(byte[] text, int chunk)
+    {
+        ByteCounter c = new ByteCounter();
+        for(int off = 0; off < text.length; off += chunk){
+            c.count(text, off, Math.min(chunk, text.length - off));
+        }
+        c.finish();
+        return counts(c);
+    }
+
+    @Test
+    @DisplayName("small cases: empty input, last line without a break, CR/LF combinations")
+    void testSmallCases()
+    {
+        String[] cases = {
+            "", "a", "a\n", "a\n\n", "\n", "\r", "\r\n", "\n\r", "\r\r\n\n", "a\rb\r\nc\nd",
+            "  x  y\t", " \f\u000B ", "😀", "été €5\r\n",
+            "a\u3000b\n", "a\u2028b\n", "a\u2029\u0085b", "\u2028", "x\u2007y\u00A0z"
+        };
+        for(String s : cases){
+            byte[] text = s.getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(scannerCounts(text), countInChunks(text, Math.max(1, text.length)));
+        }
+    }
+
+    @Test
+    @DisplayName("count(byte[]) in pieces of every size matches Scanner, cuts inside \\r\\n and surrogates")
+    void testChunkSizes()
+    {
+        Random rnd = new Random(19);
+        for(int round = 0; round < 200; round++){
+            byte[] text = randomText(rnd, 1 + rnd.nextInt(60));
+            long[] expected = scannerCounts(text);
+            for(int chunk = 1; chunk <= text.length + 1; chunk++){
+                assertArrayEquals(expected, countInChunks(text, chunk));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("count(ByteBuffer) counts position..limit, in 64 KB blocks, without moving position")
+    void testByteBuffer()
+    {
+        Random rnd = new Random(190);
+        byte[] text = randomText(rnd, 60000); // more than one 64 KB block
+        byte[] padded = new byte[text.length + 10];
+        System.arraycopy(text, 0, padded, 3, text.length);
+        ByteBuffer buf = ByteBuffer.wrap(padded, 3, text.length);
+
+        ByteCounter c = new ByteCounter();
+        c.count(buf);
+        c.finish();
+        assertArrayEquals(scannerCounts(text), counts(c));
+        assertEquals(3, buf.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(text.length);
+        direct.put(text).flip();
+        c = new ByteCounter();
+        c.count(direct);
+        c.finish();
+        assertArrayEquals(scannerCounts(text), counts(c));
+    }
+
+    @Test
+    @DisplayName("isInLine() and finish(): a last line without a break counts once")
+    void testFinish()
+    {
+        ByteCounter c = new ByteCounter();
+        assertFalse(c.isInLine());
+        c.count("ab".getBytes(StandardCharsets.UTF_8), 0, 2);
+        assertTrue(c.isInLine());
+        assertEquals(0, c.getLineCount());
+        c.count("\r".getBytes(StandardCharsets.UTF_8), 0, 1);
+        assertFalse(c.isInLine());
+        c.finish();
+        c.finish();
+        assertEquals(1, c.getLineCount());
+        assertEquals(1, c.getWordCount());
+        assertEquals(2, c.getCharCount());
+    }
+}
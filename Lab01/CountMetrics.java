@@ -0,0 +1,193 @@
+
+/**
+ * Measures how fast a file is being counted.
+ *
+ * Each counted chunk reports its bytes, lines, words and how long it took.
+ * A background thread can print the rates and per-chunk latency to stderr
+ * at a fixed interval, and at the end a one-object JSON summary can be
+ * written for scripts to read. The CPU time of the process is included, so
+ * a run that is waiting on the disk (CPU time well below wall time times
+ * cores) can be told apart from one limited by counting speed.
+ *
+ * Safe to record into from several threads at once.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CountMetrics
+{
+    private final String mode;
+    private final long startNanos = System.nanoTime();
+    private final long startCpu = processCpuNanos();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder words = new LongAdder();
+
+    // Chunk latencies in nanoseconds; guarded by this
+    private long[] latencies = new long[256];
+    private int chunks;
+    private int reportedChunks;
+
+    private Thread reporter;
+
+    /**
+     * @param mode A short name for how the input is counted, e.g. "parallel"
+     */
+    public CountMetrics(String mode)
+    {
+        this.mode = mode;
+    }
+
+    /**
+     * Records one counted chunk
+     *
+     * @param byteCount The bytes in the chunk
+     * @param lineCount The lines counted in the chunk
+     * @param wordCount The words counted in the chunk
+     * @param nanos How long counting the chunk took
+     */
+    public void record(long byteCount, long lineCount, long wordCount, long nanos)
+    {
+        bytes.add(byteCount);
+        lines.add(lineCount);
+        words.add(wordCount);
+        synchronized(this){
+            if(chunks == latencies.length) latencies = Arrays.copyOf(latencies, chunks * 2);
+            latencies[chunks++] = nanos;
+        }
+    }
+
+    /**
+     * Starts a daemon thread that prints one line of metrics every interval
+     * (rates over that interval, latency of the chunks finished in it)
+     *
+     * @param out Where to print, usually System.err
+     * @param intervalMillis Milliseconds between reports, at least 1
+     * @throws IllegalArgumentException If intervalMillis is below 1
+     */
+    public void startReporting(PrintStream out, long intervalMillis)
+    {
+        if(intervalMillis < 1){
+            throw new IllegalArgumentException("interval must be at least 1 ms: " + intervalMillis);
+        }
+        reporter = new Thread(() -> {
+            long lastNanos = startNanos;
+            long lastBytes = 0, lastLines = 0, lastWords = 0;
+            try{
+                while(true){
+                    Thread.sleep(intervalMillis);
+                    long now = System.nanoTime();
+                    long b = bytes.sum(), l = lines.sum(), w = words.sum();
+                    double secs = (now - lastNanos) / 1e9;
+                    long[] recent = takeRecentLatencies();
+                    out.println(String.format(Locale.ROOT,
+                        "[metrics] %.1f MB/s, %.0f lines/s, %.0f words/s, %d chunks, p50 %.2f ms, p99 %.2f ms",
+                        (b - lastBytes) / secs / 1e6, (l - lastLines) / secs, (w - lastWords) / secs,
+                        recent.length, percentile(recent, 50) / 1e6, percentile(recent, 99) / 1e6));
+                    lastNanos = now;
+                    lastBytes = b;
+                    lastLines = l;
+                    lastWords = w;
+                }
+            }
+            catch(InterruptedException e){
+                // stopReporting() was called
+            }
+        }, "Lab01-metrics");
+        reporter.setDaemon(true);
+        reporter.start();
+    }
+
+    /**
+     * Stops the reporting thread, if one was started
+     */
+    public void stopReporting()
+    {
+        if(reporter != null) reporter.interrupt();
+    }
+
+    /**
+     * Writes the final summary as a single JSON object
+     *
+     * @param file Where to write it
+     * @param lineCount The final line total
+     * @param wordCount The final word total
+     * @param charCount The final character total
+     * @throws IOException If the file cannot be written
+     */
+    public void writeSummary(Path file, long lineCount, long wordCount, long charCount) throws IOException
+    {
+        long[] all;
+        synchronized(this){
+            all = Arrays.copyOf(latencies, chunks);
+        }
+        Arrays.sort(all);
+        double secs = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+        long cpu = processCpuNanos();
+        double cpuSecs = (cpu < 0 || startCpu < 0) ? -1 : (cpu - startCpu) / 1e9;
+        long byteCount = bytes.sum();
+
+        try(BufferedWriter b = Files.newBufferedWriter(file)){
+            b.write(String.format(Locale.ROOT,
+                "{\"mode\": \"%s\", \"seconds\": %.3f, \"cpuSeconds\": %.3f, \"cores\": %d,%n"
+                + " \"bytes\": %d, \"lines\": %d, \"words\": %d, \"chars\": %d,%n"
+                + " \"bytesPerSec\": %.0f, \"linesPerSec\": %.0f, \"wordsPerSec\": %.0f,%n"
+                + " \"chunks\": %d, \"chunkP50Ms\": %.3f, \"chunkP99Ms\": %.3f, \"chunkMaxMs\": %.3f}%n",
+                mode, secs, cpuSecs, Runtime.getRuntime().availableProcessors(),
+                byteCount, lineCount, wordCount, charCount,
+                byteCount / secs, lineCount / secs, wordCount / secs,
+                all.length, sortedPercentile(all, 50) / 1e6, sortedPercentile(all, 99) / 1e6,
+                (all.length == 0 ? 0 : all[all.length - 1]) / 1e6));
+        }
+    }
+
+    /**
+     * Returns the latencies recorded since the last call
+     */
+    private synchronized long[] takeRecentLatencies()
+    {
+        long[] recent = Arrays.copyOfRange(latencies, reportedChunks, chunks);
+        reportedChunks = chunks;
+        return recent;
+    }
+
+    private static double percentile(long[] values, int p)
+    {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sortedPercentile(sorted, p);
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted array (0 if it is empty)
+     */
+    private static double sortedPercentile(long[] sorted, int p)
+    {
+        if(sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * CPU time used by the whole process, or -1 if the JVM cannot tell
+     */
+    private static long processCpuNanos()
+    {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if(os instanceof com.sun.management.OperatingSystemMXBean){
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,139 @@
+
+/**
+ * Checks the percentiles CountMetrics reports and the shape of its JSON
+ * summary.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class CountMetricsTest
+{
+    private static final String[] KEYS = {
+        "mode", "seconds", "cpuSeconds", "cores", "bytes", "lines", "words", "chars",
+        "bytesPerSec", "linesPerSec", "wordsPerSec", "chunks", "chunkP50Ms", "chunkP99Ms", "chunkMaxMs"
+    };
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\": (\"[^\"]*\"|-?\\d+(?:\\.\\d+)?)");
+
+    /**
+     * Writes the summary and returns its fields in order, as {key, value}
+     */
+    private static List<String[]> summary(CountMetrics m, long lines, long words, long chars) throws IOException
+    {
+        Path file = Files.createTempFile("metrics", ".json");
+        try{
+            m.writeSummary(file, lines, words, chars);
+            String json = Files.readString(file).trim();
+            assertTrue(json.startsWith("{") && json.endsWith("}"), json);
+
+            List<String[]> fields = new ArrayList<>();
+            Matcher f = FIELD.matcher(json);
+            int end = 1;
+            while(f.find()){
+                // nothing but a comma and whitespace between two fields
+                assertTrue(json.substring(end, f.start()).matches(fields.isEmpty() ? "\\s*" : ",\\s*"), json);
+                fields.add(new String[] {f.group(1), f.group(2)});
+                end = f.end();
+            }
+            assertEquals(json.length() - 1, end, json);
+            return fields;
+        }
+        finally{
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String value(List<String[]> fields, String key)
+    {
+        for(String[] f : fields){
+            if(f[0].equals(key)) return f[1];
+        }
+        throw new AssertionError("no " + key);
+    }
+
+    @Test
+    @DisplayName("writeSummary(): one JSON object with every field, in order")
+    void testSummaryShape() throws IOException
+    {
+        CountMetrics m = new CountMetrics("parallel");
+        m.record(1000, 10, 100, 2_000_000);
+        m.record(500, 5, 50, 1_000_000);
+        List<String[]> fields = summary(m, 15, 150, 1400);
+
+        assertEquals(KEYS.length, fields.size());
+        for(int i = 0; i < KEYS.length; i++){
+            assertEquals(KEYS[i], fields.get(i)[0]);
+        }
+        assertEquals("\"parallel\"", value(fields, "mode"));
+        assertEquals("1500", value(fields, "bytes"));
+        assertEquals("15", value(fields, "lines"));
+        assertEquals("150", value(fields, "words"));
+        assertEquals("1400", value(fields, "chars"));
+        assertEquals("2", value(fields, "chunks"));
+        assertEquals("" + Runtime.getRuntime().availableProcessors(), value(fields, "cores"));
+    }
+
+    @Test
+    @DisplayName("writeSummary(): nearest-rank p50/p99 and max of the chunk latencies")
+    void testPercentiles() throws IOException
+    {
+        CountMetrics m = new CountMetrics("files");
+        for(int ms = 100; ms >= 1; ms--){
+            m.record(1, 0, 0, ms * 1_000_000L); // 1..100 ms, recorded out of order
+        }
+        List<String[]> fields = summary(m, 0, 0, 0);
+        assertEquals("100", value(fields, "chunks"));
+        assertEquals("50.000", value(fields, "chunkP50Ms"));
+        assertEquals("99.000", value(fields, "chunkP99Ms"));
+        assertEquals("100.000", value(fields, "chunkMaxMs"));
+
+        m = new CountMetrics("sequential");
+        m.record(1, 0, 0, 3_000_000);
+        m.record(1, 0, 0, 7_000_000);
+        m.record(1, 0, 0, 5_000_000);
+        fields = summary(m, 0, 0, 0);
+        assertEquals("5.000", value(fields, "chunkP50Ms"));
+        assertEquals("7.000", value(fields, "chunkP99Ms"));
+
+        fields = summary(new CountMetrics("follow"), 0, 0, 0);
+        assertEquals("0", value(fields, "chunks"));
+        assertEquals("0.000", value(fields, "chunkP50Ms"));
+        assertEquals("0.000", value(fields, "chunkMaxMs"));
+    }
+
+    @Test
+    @DisplayName("startReporting(): prints the chunks of each interval, rejects an interval below 1")
+    void testReporting() throws InterruptedException
+    {
+        CountMetrics m = new CountMetrics("parallel");
+        m.record(100, 1, 1, 2_000_000);
+        m.record(100, 1, 1, 4_000_000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        m.startReporting(out, 10);
+        for(int i = 0; i < 500 && !bytes.toString(StandardCharsets.UTF_8).contains("\n"); i++){
+            Thread.sleep(10);
+        }
+        m.stopReporting();
+
+        String first = bytes.toString(StandardCharsets.UTF_8).split("\n")[0];
+        assertTrue(first.startsWith("[metrics] "), first);
+        assertTrue(first.endsWith(", 2 chunks, p50 2.00 ms, p99 4.00 ms"), first);
+
+        assertThrows(IllegalArgumentException.class, () -> m.startReporting(out, 0));
+        assertThrows(IllegalArgumentException.class, () -> m.startReporting(out, -5));
+    }
+}
@@ -0,0 +1,148 @@
+
+/**
+ * Keeps line, word and character counts of a file that is still being
+ * written to, such as a log.
+ *
+ * Each call to poll() reads only the bytes added since the last call,
+ * starting from the remembered offset. The counter keeps the state of the
+ * last byte, so a word or line that was still being written last time is
+ * carried on rather than counted twice. If the file gets shorter (it was
+ * truncated), counting starts over from the beginning.
+ *
+ * If the file is rotated (renamed or deleted, and a new file created under
+ * the same name), poll() notices that the name now leads to a different
+ * file, reopens it and starts over on the new file. This relies on the file
+ * system giving each file a key (an inode on Unix); where it does not, only
+ * truncation is detected.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+public class FileFollower implements AutoCloseable
+{
+    private static final int READ_SIZE = 1 << 20;
+
+    private final Path file;
+    private FileChannel ch;
+    private Object fileKey; // identifies the open file; null if the file system has no keys
+    private final ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+    private ByteCounter counter = new ByteCounter();
+    private long offset;
+
+    /**
+     * Opens the file; nothing is counted until the first poll()
+     *
+     * @param file The file to follow
+     * @throws IOException If the file cannot be opened
+     */
+    public FileFollower(Path file) throws IOException
+    {
+        this.file = file;
+        ch = FileChannel.open(file, StandardOpenOption.READ);
+        fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * Counts whatever has been added to the file since the last call
+     *
+     * @return The number of new bytes counted (0 if the file has not grown)
+     * @throws IOException If the file cannot be read
+     */
+    public long poll() throws IOException
+    {
+        reopenIfReplaced();
+        long size = ch.size();
+        if(size < offset){
+            counter = new ByteCounter();
+            offset = 0;
+        }
+
+        long start = offset;
+        while(offset < size){
+            buffer.clear();
+            buffer.limit((int) Math.min(READ_SIZE, size - offset));
+            int n = ch.read(buffer, offset);
+            if(n <= 0) break;
+            counter.count(buffer.array(), 0, n);
+            offset += n;
+        }
+        return offset - start;
+    }
+
+    /**
+     * Switches to the file now found under the name, if it is not the one
+     * that is open. While the name leads nowhere (the old file was moved
+     * and the new one is not there yet) the old file is kept.
+     */
+    private void reopenIfReplaced() throws IOException
+    {
+        if(fileKey == null) return;
+        Object key;
+        FileChannel next;
+        try{
+            key = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+            if(fileKey.equals(key)) return;
+            next = FileChannel.open(file, StandardOpenOption.READ);
+        }
+        catch(NoSuchFileException e){
+            return;
+        }
+        ch.close();
+        ch = next;
+        fileKey = key;
+        counter = new ByteCounter();
+        offset = 0;
+    }
+
+    /**
+     * @return The number of lines so far, including a last line still being written
+     */
+    public long getLineCount()
+    {
+        return counter.getLineCount() + (counter.isInLine() ? 1 : 0);
+    }
+
+    /**
+     * @return The number of words so far
+     */
+    public long getWordCount()
+    {
+        return counter.getWordCount();
+    }
+
+    /**
+     * @return The number of characters so far
+     */
+    public long getCharCount()
+    {
+        return counter.getCharCount();
+    }
+
+    /**
+     * @return The number of bytes of the file counted so far
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Closes the file
+     *
+     * @throws IOException If closing fails
+     */
+    @Override
+    public void close() throws IOException
+    {
+        ch.close();
+    }
+}
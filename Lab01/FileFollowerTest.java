@@ -0,0 +1,150 @@
+
+/**
+ * Checks that FileFollower counts only what is appended, carries a word or
+ * line cut by a poll on to the next one, and starts over when the file is
+ * truncated or rotated.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+public class FileFollowerTest
+{
+    private static void append(Path file, String text) throws IOException
+    {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static void assertCounts(long lines, long words, long chars, FileFollower f)
+    {
+        assertArrayEquals(new long[] {lines, words, chars},
+                          new long[] {f.getLineCount(), f.getWordCount(), f.getCharCount()});
+    }
+
+    @Test
+    @DisplayName("poll(): reads on from the saved offset, never the bytes before it")
+    void testResumeFromOffset() throws IOException
+    {
+        Path file = Files.createTempFile("follow", ".log");
+        try(FileFollower f = new FileFollower(file)){
+            assertEquals(0, f.poll());
+            assertCounts(0, 0, 0, f);
+
+            Files.writeString(file, "one two\nthree\n");
+            assertEquals(14, f.poll());
+            assertEquals(14, f.getOffset());
+            assertCounts(2, 3, 12, f);
+            assertEquals(0, f.poll());
+
+            // rewrite counted bytes in place: only the appended ones are read
+            try(FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)){
+                ch.write(ByteBuffer.wrap("x x x x\n".getBytes(StandardCharsets.UTF_8)), 0);
+            }
+            append(file, "four\n");
+            assertEquals(5, f.poll());
+            assertEquals(19, f.getOffset());
+            assertCounts(3, 4, 16, f);
+        }
+        finally{
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("poll(): a word, a \\r\\n or a character split between two appends counts once")
+    void testSplitAcrossAppends() throws IOException
+    {
+        Path file = Files.createTempFile("follow", ".log");
+        try(FileFollower f = new FileFollower(file)){
+            append(file, "hel");
+            f.poll();
+            assertCounts(1, 1, 3, f); // the line still being written counts
+            append(file, "lo wor");
+            f.poll();
+            append(file, "ld\r");
+            f.poll();
+            assertCounts(1, 2, 11, f);
+            append(file, "\nnext");
+            f.poll();
+            assertCounts(2, 3, 15, f);
+
+            byte[] euro = "€\u3000x".getBytes(StandardCharsets.UTF_8);
+            Files.write(file, new byte[] {euro[0]}, StandardOpenOption.APPEND);
+            f.poll();
+            Files.write(file, new byte[] {euro[1], euro[2], euro[3]}, StandardOpenOption.APPEND);
+            f.poll();
+            Files.write(file, new byte[] {euro[4], euro[5], euro[6]}, StandardOpenOption.APPEND);
+            f.poll();
+            assertCounts(2, 4, 18, f); // "next€" then a U+3000 space, then "x"
+        }
+        finally{
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("poll(): a truncated file is counted again from the start")
+    void testTruncation() throws IOException
+    {
+        Path file = Files.createTempFile("follow", ".log");
+        try(FileFollower f = new FileFollower(file)){
+            append(file, "a b c\nd e f\n");
+            f.poll();
+            assertCounts(2, 6, 10, f);
+
+            try(FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)){
+                ch.truncate(0);
+            }
+            append(file, "g\n");
+            assertEquals(2, f.poll());
+            assertEquals(2, f.getOffset());
+            assertCounts(1, 1, 1, f);
+        }
+        finally{
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("poll(): a rotated file is noticed by its file key and the new file is counted")
+    void testRotation() throws IOException
+    {
+        Path file = Files.createTempFile("follow", ".log");
+        Path rotated = file.resolveSibling(file.getFileName() + ".1");
+        try(FileFollower f = new FileFollower(file)){
+            if(Files.readAttributes(file, BasicFileAttributes.class).fileKey() == null){
+                return; // the file system cannot tell files apart; only truncation is detected
+            }
+            append(file, "old one\nold two\nold three\n");
+            f.poll();
+            assertCounts(3, 6, 23, f);
+
+            // moved away, nothing under the name yet: the old file is kept
+            Files.move(file, rotated);
+            append(rotated, "last\n");
+            assertEquals(5, f.poll());
+            assertCounts(4, 7, 27, f);
+
+            // the new file is longer than the old offset, so only the key tells them apart
+            Files.writeString(file, "new 1 2 3 4 5 6 7 8 9 10 11 12 13 14 15 16 17\n");
+            f.poll();
+            assertCounts(1, 18, 45, f);
+            assertEquals(Files.size(file), f.getOffset());
+        }
+        finally{
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(rotated);
+        }
+    }
+}
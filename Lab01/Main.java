@@ -3,23 +3,121 @@
  * Reads user input lines, counts lines/words/characters
  * and writes results to Terminal Window and Lab1.txt
  *
+ * Given a file name instead, counts that file without echoing it:
+ *     java Main input.txt
+ *     java Main -parallel input.txt    (splits the file across all cores)
+ *     java Main -follow app.log        (keeps counting what is appended)
+ *     java Main -follow -interval=500 app.log
+ *
+ * Given several files, directories or glob patterns, counts every file on
+ * its own virtual thread (at most 64, or -concurrency=N, at once) and
+ * prints each file's counts and the grand total:
+ *     java Main logs 'data/**.txt' notes.txt
+ *
+ * Adding -metrics to a file mode prints speed and chunk latency to the error
+ * stream every second (or every -interval=MS) and writes a JSON summary to
+ * Lab01.metrics.json next to Lab01.txt.
+ *
+ * With -quiet, typed or piped input is counted without the debug lines on
+ * the error stream, and the echo is written by a background thread:
+ *     java Main -quiet < input.txt
+ *
  * @author Ali Kablanbek
  * @version 1.31.26
  */
 import java.util.Scanner;
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 public class Main
 {
+    // Largest piece of a file mapped at once (a mapping must fit in an int)
+    private static final long MAP_SIZE = 1L << 30;
+    // Bytes counted between two timings in -metrics mode
+    private static final int METRICS_SLICE = 1 << 23;
 
     /**
      * Program entry point; processes input until a blank line is entered
      *
-     * @param args Command-line arguments (not used)
+     * @param args Command-line arguments: optionally -parallel or -follow,
+     *             -metrics, -interval=MS and a file to count; several
+     *             files, directories or globs (with -concurrency=N); or -quiet
      * @throws Exception If an I/O error occurs
      */
     public static void main(String[] args) throws Exception
     {
+        boolean parallel = false;
+        boolean quiet = false;
+        boolean follow = false;
+        boolean metrics = false;
+        long interval = 1000;
+        int concurrency = 64;
+        List<String> fileNames = new ArrayList<>();
+        for(String arg : args){
+            if(arg.equals("-parallel")){
+                parallel = true;
+            }
+            else if(arg.equals("-quiet")){
+                quiet = true;
+            }
+            else if(arg.equals("-follow")){
+                follow = true;
+            }
+            else if(arg.equals("-metrics")){
+                metrics = true;
+            }
+            else if(arg.startsWith("-interval=")){
+                interval = Long.parseLong(arg.substring("-interval=".length()));
+                if(interval < 1){
+                    throw new IllegalArgumentException("-interval must be at least 1: " + arg);
+                }
+            }
+            else if(arg.startsWith("-concurrency=")){
+                concurrency = Integer.parseInt(arg.substring("-concurrency=".length()));
+                if(concurrency < 1){
+                    throw new IllegalArgumentException("-concurrency must be at least 1: " + arg);
+                }
+            }
+            else{
+                fileNames.add(arg);
+            }
+        }
+        
+        // File names on the command line are counted instead of the console input
+        if(!fileNames.isEmpty()){
+            String fileName = fileNames.get(0);
+            boolean many = fileNames.size() > 1 || MultiFileCounter.isGlob(fileName)
+                           || Files.isDirectory(Path.of(fileName));
+            CountMetrics m = null;
+            if(metrics){
+                m = new CountMetrics(many ? "files" : follow ? "follow" : parallel ? "parallel" : "sequential");
+                m.startReporting(System.err, interval);
+            }
+            if(many){
+                countFiles(fileNames, concurrency, m);
+            }
+            else if(follow){
+                followFile(Path.of(fileName), interval, m);
+            }
+            else{
+                countFile(Path.of(fileName), parallel, m);
+            }
+            return;
+        }
+        if(quiet){
+            countConsoleQuiet();
+            return;
+        }
+        
         // Initializing the variables
         int lineCount = 0;
         int wordCount = 0;
@@ -79,17 +177,227 @@ public class Main
         // Point of exiting the loop
         System.err.println("exiting the loop");
         
+        printTotals(lineCount, wordCount, charCount);
+        writeTotals(b, lineCount, wordCount, charCount);
+        
+        s.close();
+        b.close();
+    }
+
+    /**
+     * Same as the console loop in main(), minus the debug lines on the error
+     * stream. Lines are split on the whitespace Scanner uses, without making
+     * a Scanner per line, and the echo to the Terminal Window and Lab01.txt
+     * is handed to a BatchedOutput thread. Also stops at the end of piped input.
+     *
+     * @throws IOException If Lab01.txt cannot be written
+     */
+    public static void countConsoleQuiet() throws IOException
+    {
+        int lineCount = 0;
+        int wordCount = 0;
+        int charCount = 0;
+        
+        // Clearing the Terminal Window
+        System.out.print('\u000C');
+        System.out.flush();
+        
+        Scanner s = new Scanner(System.in);
+        BatchedOutput out = new BatchedOutput(System.out, System.out.charset(),
+                                              new FileOutputStream("Lab01.txt"), Charset.defaultCharset());
+        
+        while(s.hasNextLine()){
+            String givenLine = s.nextLine();
+            if(givenLine.isBlank()){
+                break;
+            }
+            lineCount++;
+            out.line(givenLine);
+            charCount += givenLine.length();
+            
+            // Looping through tokens
+            int n = givenLine.length();
+            int i = 0;
+            while(true){
+                while(i < n && Character.isWhitespace(givenLine.charAt(i))) i++;
+                if(i == n) break;
+                int start = i;
+                while(i < n && !Character.isWhitespace(givenLine.charAt(i))) i++;
+                wordCount++;
+                out.token(givenLine, start, i);
+            }
+        }
+        out.close();
+        
+        printTotals(lineCount, wordCount, charCount);
+        try(BufferedWriter b = new BufferedWriter(new FileWriter("Lab01.txt", true))){
+            writeTotals(b, lineCount, wordCount, charCount);
+        }
+        s.close();
+    }
+
+    /**
+     * Counts the lines, words and characters of a file in one pass over its
+     * bytes. The file is memory-mapped (1 GB at a time), so no Strings or
+     * Scanners are created. The totals match what typing the same lines
+     * would give, except that blank lines do not stop the count.
+     *
+     * @param file The file to count
+     * @param parallel true to count pieces of the file on all cores at once
+     * @param metrics Where to record chunk timings, or null; its summary is
+     *                written to Lab01.metrics.json at the end
+     * @throws IOException If the file cannot be read or Lab01.txt cannot be written
+     */
+    public static void countFile(Path file, boolean parallel, CountMetrics metrics) throws IOException
+    {
+        ByteCounter counter;
+        if(parallel){
+            counter = ParallelCounter.count(file, ForkJoinPool.commonPool(), 0, metrics);
+        }
+        else{
+            counter = new ByteCounter();
+            try(FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)){
+                long size = ch.size();
+                for(long pos = 0; pos < size; pos += MAP_SIZE){
+                    MappedByteBuffer part = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_SIZE, size - pos));
+                    
+                    // Counting in slices so each one can be timed
+                    for(int off = 0; off < part.limit(); off += METRICS_SLICE){
+                        int len = Math.min(METRICS_SLICE, part.limit() - off);
+                        long lines = counter.getLineCount();
+                        long words = counter.getWordCount();
+                        long began = System.nanoTime();
+                        counter.count(part.slice(off, len));
+                        if(metrics != null){
+                            metrics.record(len, counter.getLineCount() - lines, counter.getWordCount() - words,
+                                           System.nanoTime() - began);
+                        }
+                    }
+                }
+            }
+            counter.finish();
+        }
+        if(metrics != null){
+            metrics.stopReporting();
+            metrics.writeSummary(Path.of("Lab01.metrics.json"),
+                                 counter.getLineCount(), counter.getWordCount(), counter.getCharCount());
+        }
+        
+        printTotals(counter.getLineCount(), counter.getWordCount(), counter.getCharCount());
+        try(BufferedWriter b = new BufferedWriter(new FileWriter("Lab01.txt"))){
+            writeTotals(b, counter.getLineCount(), counter.getWordCount(), counter.getCharCount());
+        }
+    }
+
+    /**
+     * Counts many files at once (see MultiFileCounter), then prints each
+     * file's counts in path order and the grand total, and writes the same
+     * to Lab01.txt
+     *
+     * @param args File names, directory names or glob patterns
+     * @param concurrency The most files to read at the same time
+     * @param metrics Where to record per-file timings, or null; its summary
+     *                is written to Lab01.metrics.json at the end
+     * @throws IOException If a directory cannot be listed or Lab01.txt cannot be written
+     * @throws InterruptedException If interrupted while waiting for the files
+     */
+    public static void countFiles(List<String> args, int concurrency, CountMetrics metrics)
+        throws IOException, InterruptedException
+    {
+        List<Path> files = MultiFileCounter.expand(args);
+        Map<Path, ByteCounter> counts = MultiFileCounter.countAll(files, concurrency, metrics);
+        
+        ByteCounter total = new ByteCounter();
+        try(BufferedWriter b = new BufferedWriter(new FileWriter("Lab01.txt"))){
+            for(Map.Entry<Path, ByteCounter> e : counts.entrySet()){
+                ByteCounter c = e.getValue();
+                String line = e.getKey() + ": " + c.getLineCount() + " lines, "
+                              + c.getWordCount() + " words, " + c.getCharCount() + " chars";
+                System.out.println(line);
+                b.write(line + "\n");
+                total.add(c);
+            }
+            
+            System.out.println("Files: " + counts.size() + " of " + files.size());
+            printTotals(total.getLineCount(), total.getWordCount(), total.getCharCount());
+            writeTotals(b, total.getLineCount(), total.getWordCount(), total.getCharCount());
+        }
+        if(metrics != null){
+            metrics.stopReporting();
+            metrics.writeSummary(Path.of("Lab01.metrics.json"),
+                                 total.getLineCount(), total.getWordCount(), total.getCharCount());
+        }
+    }
+
+    /**
+     * Counts a file and then keeps counting whatever is appended to it,
+     * printing the totals (and rewriting Lab01.txt) each interval in which
+     * the file grew. Runs until the program is stopped.
+     *
+     * @param file The file to follow
+     * @param interval How often to look for new data, in milliseconds
+     * @param metrics Where to record each poll that found data, or null;
+     *                its summary is rewritten with the totals
+     * @throws IOException If the file cannot be read or Lab01.txt cannot be written
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    public static void followFile(Path file, long interval, CountMetrics metrics) throws IOException, InterruptedException
+    {
+        try(FileFollower follower = new FileFollower(file)){
+            boolean first = true;
+            while(true){
+                long lines = follower.getLineCount();
+                long words = follower.getWordCount();
+                long offset = follower.getOffset();
+                long began = System.nanoTime();
+                long added = follower.poll();
+                if(metrics != null && added > 0){
+                    metrics.record(added, follower.getLineCount() - lines, follower.getWordCount() - words,
+                                   System.nanoTime() - began);
+                    metrics.writeSummary(Path.of("Lab01.metrics.json"),
+                                         follower.getLineCount(), follower.getWordCount(), follower.getCharCount());
+                }
+                if(follower.getOffset() != offset || first){ // grew, or started over
+                    printTotals(follower.getLineCount(), follower.getWordCount(), follower.getCharCount());
+                    try(BufferedWriter b = new BufferedWriter(new FileWriter("Lab01.txt"))){
+                        writeTotals(b, follower.getLineCount(), follower.getWordCount(), follower.getCharCount());
+                    }
+                    first = false;
+                }
+                Thread.sleep(interval);
+            }
+        }
+    }
+
+    /**
+     * Prints the totals to the Terminal Window
+     *
+     * @param lineCount The number of lines
+     * @param wordCount The number of words
+     * @param charCount The number of characters
+     */
+    private static void printTotals(long lineCount, long wordCount, long charCount)
+    {
         System.out.println("==============================================");
         System.out.println("Line Count: " + lineCount);
         System.out.println("Word Count: " + wordCount);
         System.out.println("Char Count: " + charCount);
-        
+    }
+
+    /**
+     * Writes the totals section at the end of Lab01.txt
+     *
+     * @param b The writer for Lab01.txt
+     * @param lineCount The number of lines
+     * @param wordCount The number of words
+     * @param charCount The number of characters
+     * @throws IOException If the file cannot be written
+     */
+    private static void writeTotals(BufferedWriter b, long lineCount, long wordCount, long charCount) throws IOException
+    {
         b.write("\n\n=============================================\n");
         b.write("Line Count: " + lineCount + "\n");
         b.write("Word Count: " + wordCount + "\n");
         b.write("Char Count: " + charCount + "\n");
-        
-        s.close();
-        b.close();
     }
 }
\ No newline at end of file
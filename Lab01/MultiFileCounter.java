@@ -0,0 +1,164 @@
+
+/**
+ * Counts the lines, words and characters of many files at once.
+ *
+ * Each file is counted on its own virtual thread, and at most a fixed
+ * number of files are open at the same time. A file read does not unmount
+ * a virtual thread: it holds its carrier thread while it waits, and the
+ * scheduler briefly adds carriers to make up for it, so while one file
+ * waits on the disk others keep counting. Arguments may be files, directories (every
+ * regular file below them) or glob patterns such as "logs/**.log".
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+public class MultiFileCounter
+{
+    private static final int READ_SIZE = 1 << 18;
+
+    /**
+     * Turns the arguments into a sorted list of regular files, without
+     * duplicates
+     *
+     * @param args File names, directory names or glob patterns
+     * @return The files to count
+     * @throws IOException If a directory cannot be listed
+     */
+    public static List<Path> expand(List<String> args) throws IOException
+    {
+        TreeSet<Path> files = new TreeSet<>();
+        for(String arg : args){
+            if(isGlob(arg)){
+                // walk from the part of the pattern before the first wildcard
+                int cut = firstWildcard(arg);
+                int slash = arg.lastIndexOf('/', cut);
+                Path base = Path.of(slash < 0 ? "" : arg.substring(0, slash + 1));
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + arg);
+                addRegularFiles(base, matcher, files);
+            }
+            else{
+                Path path = Path.of(arg);
+                if(Files.isDirectory(path)){
+                    addRegularFiles(path, null, files);
+                }
+                else{
+                    files.add(path.normalize());
+                }
+            }
+        }
+        return List.copyOf(files);
+    }
+
+    /**
+     * Counts every file, each on a virtual thread, with at most maxOpen of
+     * them being read at once. A file that cannot be read is reported on
+     * the error stream and left out.
+     *
+     * @param files The files to count
+     * @param maxOpen The most files to read at the same time
+     * @param metrics Where to record each file's size and counting time, or null
+     * @return A finished counter for each file that could be read, by path
+     * @throws IllegalArgumentException If maxOpen is less than 1
+     * @throws InterruptedException If interrupted while waiting for the files
+     */
+    public static Map<Path, ByteCounter> countAll(List<Path> files, int maxOpen, CountMetrics metrics)
+        throws InterruptedException
+    {
+        if(maxOpen < 1) throw new IllegalArgumentException("maxOpen must be at least 1: " + maxOpen);
+        Map<Path, ByteCounter> results = Collections.synchronizedMap(new TreeMap<>());
+        Semaphore open = new Semaphore(maxOpen);
+
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+            for(Path file : files){
+                executor.submit(() -> {
+                    open.acquire();
+                    try{
+                        long began = System.nanoTime();
+                        ByteCounter counter = countOne(file);
+                        if(metrics != null){
+                            metrics.record(Files.size(file), counter.getLineCount(), counter.getWordCount(),
+                                           System.nanoTime() - began);
+                        }
+                        results.put(file, counter);
+                    }
+                    catch(IOException | UncheckedIOException e){
+                        String why = e instanceof NoSuchFileException ? "no such file" : e.getMessage();
+                        System.err.println(file + ": " + why);
+                    }
+                    finally{
+                        open.release();
+                    }
+                    return null;
+                });
+            }
+        } // close() waits for every task
+
+        if(Thread.interrupted()) throw new InterruptedException();
+        return new TreeMap<>(results);
+    }
+
+    /**
+     * Counts one file with plain blocking reads (the read holds the carrier
+     * thread; the scheduler adds a carrier meanwhile)
+     */
+    private static ByteCounter countOne(Path file) throws IOException
+    {
+        ByteCounter counter = new ByteCounter();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+        try(FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)){
+            int n;
+            while((n = ch.read(buffer.clear())) > 0){
+                counter.count(buffer.array(), 0, n);
+            }
+        }
+        counter.finish();
+        return counter;
+    }
+
+    private static void addRegularFiles(Path base, PathMatcher matcher, TreeSet<Path> files) throws IOException
+    {
+        if(!Files.isDirectory(base.toString().isEmpty() ? Path.of(".") : base)) return;
+        try(Stream<Path> walk = Files.walk(base)){
+            walk.filter(Files::isRegularFile)
+                .filter(p -> matcher == null || matcher.matches(p))
+                .forEach(p -> files.add(p.normalize()));
+        }
+    }
+
+    /**
+     * @param arg A command-line argument
+     * @return true if arg contains a glob wildcard (* ? [ or {)
+     */
+    public static boolean isGlob(String arg)
+    {
+        return firstWildcard(arg) < arg.length();
+    }
+
+    private static int firstWildcard(String arg)
+    {
+        for(int i = 0; i < arg.length(); i++){
+            if("*?[{".indexOf(arg.charAt(i)) >= 0) return i;
+        }
+        return arg.length();
+    }
+}
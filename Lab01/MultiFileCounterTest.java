@@ -0,0 +1,217 @@
+
+/**
+ * Checks how MultiFileCounter turns arguments into files and counts them:
+ * globs, directories, duplicates, files that cannot be read, and the limit
+ * on files open at once.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+public class MultiFileCounterTest
+{
+    /**
+     * Makes dir/a.txt, dir/b.log, dir/sub/c.txt and dir/sub/deeper/d.txt
+     */
+    private static Path makeTree() throws IOException
+    {
+        Path dir = Files.createTempDirectory("multifile");
+        Files.createDirectories(dir.resolve("sub/deeper"));
+        Files.writeString(dir.resolve("a.txt"), "one\n");
+        Files.writeString(dir.resolve("b.log"), "two words\n");
+        Files.writeString(dir.resolve("sub/c.txt"), "three little words\n");
+        Files.writeString(dir.resolve("sub/deeper/d.txt"), "x\ny\n");
+        return dir;
+    }
+
+    private static void delete(Path dir) throws IOException
+    {
+        try(Stream<Path> walk = Files.walk(dir)){
+            for(Path p : walk.sorted(Comparator.reverseOrder()).toList()){
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static List<Path> paths(Path dir, String... names)
+    {
+        List<Path> paths = new ArrayList<>();
+        for(String name : names){
+            paths.add(dir.resolve(name));
+        }
+        return paths;
+    }
+
+    @Test
+    @DisplayName("expand(): globs match within one directory (*) or below it (**)")
+    void testGlobs() throws IOException
+    {
+        Path dir = makeTree();
+        try{
+            assertEquals(paths(dir, "a.txt"), MultiFileCounter.expand(List.of(dir + "/*.txt")));
+            assertEquals(paths(dir, "a.txt", "sub/c.txt", "sub/deeper/d.txt"),
+                         MultiFileCounter.expand(List.of(dir + "/**.txt")));
+            assertEquals(paths(dir, "a.txt", "b.log"), MultiFileCounter.expand(List.of(dir + "/{a,b}.*")));
+            assertEquals(paths(dir, "sub/c.txt"), MultiFileCounter.expand(List.of(dir + "/sub/?.txt")));
+            assertTrue(MultiFileCounter.expand(List.of(dir + "/*.none")).isEmpty());
+            assertTrue(MultiFileCounter.expand(List.of(dir + "/missing/*.txt")).isEmpty());
+
+            assertTrue(MultiFileCounter.isGlob("logs/**.log"));
+            assertTrue(MultiFileCounter.isGlob("file[12].txt"));
+            assertFalse(MultiFileCounter.isGlob("logs/app.log"));
+        }
+        finally{
+            delete(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("expand(): a directory stands for every regular file below it")
+    void testDirectory() throws IOException
+    {
+        Path dir = makeTree();
+        try{
+            assertEquals(paths(dir, "a.txt", "b.log", "sub/c.txt", "sub/deeper/d.txt"),
+                         MultiFileCounter.expand(List.of(dir.toString())));
+            assertEquals(paths(dir, "sub/c.txt", "sub/deeper/d.txt"),
+                         MultiFileCounter.expand(List.of(dir.resolve("sub").toString())));
+        }
+        finally{
+            delete(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("expand(): a file named twice, or also reached by a directory or glob, is counted once")
+    void testDuplicates() throws IOException, InterruptedException
+    {
+        Path dir = makeTree();
+        try{
+            List<Path> files = MultiFileCounter.expand(List.of(
+                dir + "/a.txt", dir + "/./a.txt", dir + "/sub/../a.txt",
+                dir + "/sub", dir + "/sub/c.txt", dir + "/**/c.txt"));
+            assertEquals(paths(dir, "a.txt", "sub/c.txt", "sub/deeper/d.txt"), files);
+
+            Map<Path, ByteCounter> counts = MultiFileCounter.countAll(files, 2, null);
+            assertEquals(3, counts.size());
+            assertEquals(3, counts.get(dir.resolve("sub/c.txt")).getWordCount());
+            assertEquals(2, counts.get(dir.resolve("sub/deeper/d.txt")).getLineCount());
+        }
+        finally{
+            delete(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("countAll(): a file that cannot be read is reported, the others are counted")
+    void testUnreadableFile() throws IOException, InterruptedException
+    {
+        Path dir = makeTree();
+        PrintStream err = System.err;
+        ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+        try{
+            Path missing = dir.resolve("gone.txt");
+            List<Path> files = new ArrayList<>(paths(dir, "a.txt", "b.log"));
+            files.add(1, missing);
+            files.add(dir.resolve("sub")); // a directory cannot be read as a file
+
+            System.setErr(new PrintStream(errBytes, true, StandardCharsets.UTF_8));
+            Map<Path, ByteCounter> counts = MultiFileCounter.countAll(files, 4, null);
+            System.setErr(err);
+
+            assertEquals(paths(dir, "a.txt", "b.log"), new ArrayList<>(counts.keySet()));
+            assertEquals(1, counts.get(dir.resolve("a.txt")).getWordCount());
+            assertEquals(2, counts.get(dir.resolve("b.log")).getWordCount());
+            String report = errBytes.toString(StandardCharsets.UTF_8);
+            assertTrue(report.contains(missing + ": no such file"), report);
+            assertTrue(report.contains(dir.resolve("sub") + ": "), report);
+        }
+        finally{
+            System.setErr(err);
+            delete(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("countAll(): never more than maxOpen files open at once; maxOpen below 1 is rejected")
+    void testConcurrencyLimit() throws Exception
+    {
+        assertThrows(IllegalArgumentException.class, () -> MultiFileCounter.countAll(List.of(), 0, null));
+        assertThrows(IllegalArgumentException.class, () -> MultiFileCounter.countAll(List.of(), -1, null));
+
+        // Named pipes: opening one blocks until the other end is opened too,
+        // so the writers below see exactly how many files are open for reading
+        Path dir = Files.createTempDirectory("multifile");
+        try{
+            List<Path> pipes = paths(dir, "p0", "p1", "p2", "p3", "p4", "p5");
+            for(Path pipe : pipes){
+                Process mkfifo = new ProcessBuilder("mkfifo", pipe.toString()).start();
+                if(mkfifo.waitFor() != 0) return; // no named pipes here
+            }
+
+            AtomicInteger opened = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            for(Path pipe : pipes){
+                Thread writer = new Thread(() -> {
+                    try(OutputStream out = Files.newOutputStream(pipe)){
+                        opened.incrementAndGet();
+                        release.await();
+                        out.write("a b\n".getBytes(StandardCharsets.UTF_8));
+                    }
+                    catch(IOException | InterruptedException e){
+                        // the test fails on the counts below
+                    }
+                });
+                writer.setDaemon(true);
+                writer.start();
+            }
+
+            AtomicReference<Map<Path, ByteCounter>> counts = new AtomicReference<>();
+            Thread counting = new Thread(() -> {
+                try{
+                    counts.set(MultiFileCounter.countAll(pipes, 2, null));
+                }
+                catch(InterruptedException e){
+                    // counts stays null
+                }
+            });
+            counting.setDaemon(true);
+            counting.start();
+
+            for(int i = 0; i < 500 && opened.get() < 2; i++){
+                Thread.sleep(10);
+            }
+            Thread.sleep(200); // time for a third file to be opened, if it could be
+            assertEquals(2, opened.get());
+
+            release.countDown();
+            counting.join(10000);
+            assertEquals(6, opened.get());
+            assertEquals(6, counts.get().size());
+            for(ByteCounter c : counts.get().values()){
+                assertEquals(2, c.getWordCount());
+            }
+        }
+        finally{
+            delete(dir);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+
+/**
+ * Counts the lines, words and characters of one file on several cores.
+ *
+ * The file is cut into byte ranges that end right after a line break
+ * (looking ahead at most 64 KB from each cut), each range is mapped into
+ * memory and counted by its own ByteCounter on a fork-join pool, and the
+ * counters are merged back together in file order. A range can only start
+ * in the middle of a line if that line is longer than the look-ahead; the
+ * merge still counts a word or "\r\n" cut in two exactly once, so the totals
+ * are always the same as counting the file on one thread.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ParallelCounter extends RecursiveTask<ByteCounter>
+{
+    // Smallest and largest range counted as one task
+    private static final long MIN_CHUNK = 1L << 22;
+    private static final long MAX_CHUNK = 1L << 30;
+    // How far past a cut to look for a line break
+    private static final int ALIGN_WINDOW = 1 << 16;
+    private static final long serialVersionUID = 1L;
+
+    private final transient FileChannel ch;
+    private final transient CountMetrics metrics; // null when not measuring
+    private final long[] bounds;
+    private final int from;
+    private final int to;
+
+    /**
+     * Counts the ranges bounds[from]..bounds[to] of the file
+     */
+    private ParallelCounter(FileChannel ch, CountMetrics metrics, long[] bounds, int from, int to)
+    {
+        this.ch = ch;
+        this.metrics = metrics;
+        this.bounds = bounds;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Counts a file on the common fork-join pool
+     *
+     * @param file The file to count
+     * @return A finished counter holding the totals for the file
+     * @throws IOException If the file cannot be read
+     */
+    public static ByteCounter count(Path file) throws IOException
+    {
+        return count(file, ForkJoinPool.commonPool(), 0, null);
+    }
+
+    /**
+     * Counts a file on the given pool
+     *
+     * @param file The file to count
+     * @param pool The pool to run the counting tasks on
+     * @param chunkSize The bytes per task, or 0 to pick from the file size
+     *        and the pool's parallelism
+     * @param metrics Where to record each range's size and counting time,
+     *        or null
+     * @return A finished counter holding the totals for the file
+     * @throws IOException If the file cannot be read
+     */
+    public static ByteCounter count(Path file, ForkJoinPool pool, long chunkSize, CountMetrics metrics) throws IOException
+    {
+        try(FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = ch.size();
+            if(chunkSize <= 0){
+                // a few tasks per worker so a slow range does not hold up the rest
+                chunkSize = Math.max(MIN_CHUNK, size / (4L * pool.getParallelism()));
+            }
+            long[] bounds = split(ch, size, Math.min(chunkSize, MAX_CHUNK));
+
+            ByteCounter counter;
+            try{
+                counter = pool.invoke(new ParallelCounter(ch, metrics, bounds, 0, bounds.length - 1));
+            }
+            catch(UncheckedIOException e){
+                throw e.getCause();
+            }
+            counter.finish();
+            return counter;
+        }
+    }
+
+    /**
+     * Counts this task's ranges, splitting them in half between two tasks
+     * until only one range is left
+     *
+     * @return An unfinished counter for this task's bytes
+     */
+    @Override
+    protected ByteCounter compute()
+    {
+        if(to - from <= 1){
+            return countRange(bounds[from], bounds[to]);
+        }
+
+        int mid = (from + to) >>> 1;
+        ParallelCounter left = new ParallelCounter(ch, metrics, bounds, from, mid);
+        left.fork();
+        ByteCounter right = new ParallelCounter(ch, metrics, bounds, mid, to).compute();
+        ByteCounter counter = left.join();
+        counter.add(right);
+        return counter;
+    }
+
+    /**
+     * Maps the bytes start..end-1 and counts them
+     */
+    private ByteCounter countRange(long start, long end)
+    {
+        ByteCounter counter = new ByteCounter();
+        long began = System.nanoTime();
+        try{
+            if(end > start){
+                counter.count(ch.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            }
+        }
+        catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        if(metrics != null){
+            metrics.record(end - start, counter.getLineCount(), counter.getWordCount(), System.nanoTime() - began);
+        }
+        return counter;
+    }
+
+    /**
+     * Returns the range boundaries: 0, the cuts, and size. Each cut is moved
+     * to just after the first '\n' at or after it, if one is close enough.
+     */
+    private static long[] split(FileChannel ch, long size, long chunkSize) throws IOException
+    {
+        long[] bounds = new long[(int) (size / chunkSize) + 2];
+        int n = 0;
+        bounds[n++] = 0;
+
+        ByteBuffer window = ByteBuffer.allocate(ALIGN_WINDOW);
+        for(long cut = chunkSize; cut < size; cut = bounds[n - 1] + chunkSize){
+            long at = lineStartAfter(ch, cut, size, window);
+            if(at >= size) break;
+            bounds[n++] = at;
+        }
+        bounds[n++] = size;
+        return Arrays.copyOf(bounds, n);
+    }
+
+    /**
+     * Returns the position just after the first '\n' found in
+     * cut-1 .. cut-1+window, or cut if there is none
+     */
+    private static long lineStartAfter(FileChannel ch, long cut, long size, ByteBuffer window) throws IOException
+    {
+        long pos = cut - 1;
+        window.clear();
+        window.limit((int) Math.min(window.capacity(), size - pos));
+        while(window.hasRemaining()){
+            if(ch.read(window, pos + window.position()) < 0) break;
+        }
+        for(int i = 0; i < window.position(); i++){
+            if(window.get(i) == '\n') return pos + i + 1;
+        }
+        return cut;
+    }
+}
@@ -0,0 +1,135 @@
+
+/**
+ * Checks that merging counters with ByteCounter.add() and counting a file
+ * with ParallelCounter give the same totals as the Scanner-based counting
+ * of the console mode, wherever the input is cut.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.26
+ */
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelCounterTest
+{
+    private static long[] counts(ByteCounter c)
+    {
+        return new long[] {c.getLineCount(), c.getWordCount(), c.getCharCount()};
+    }
+
+    /**
+     * Counts each piece of text between the cuts with its own counter, as
+     * ParallelCounter does, and merges them in order
+     */
+    private static long[] countMerged(byte[] text, int... cuts)
+    {
+        ByteCounter total = new ByteCounter();
+        int from = 0;
+        for(int i = 0; i <= cuts.length; i++){
+            int to = (i < cuts.length) ? cuts[i] : text.length;
+            ByteCounter piece = new ByteCounter();
+            piece.count(text, from, to - from);
+            total.add(piece);
+            from = to;
+        }
+        total.finish();
+        return counts(total);
+    }
+
+    private static long[] countFile(byte[] text, ForkJoinPool pool, long chunkSize) throws IOException
+    {
+        Path file = Files.createTempFile("parallelcounter", ".txt");
+        try{
+            Files.write(file, text);
+            return counts(ParallelCounter.count(file, pool, chunkSize, null));
+        }
+        finally{
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("add(): one cut at every position, including inside \\r\\n and surrogate pairs")
+    void testAddEveryCut()
+    {
+        Random rnd = new Random(20);
+        for(int round = 0; round < 200; round++){
+            byte[] text = ByteCounterTest.randomText(rnd, 1 + rnd.nextInt(40));
+            long[] expected = ByteCounterTest.scannerCounts(text);
+            for(int cut = 0; cut <= text.length; cut++){
+                assertArrayEquals(expected, countMerged(text, cut));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("add(): many cuts, empty pieces and single-byte pieces")
+    void testAddManyCuts()
+    {
+        Random rnd = new Random(200);
+        for(int round = 0; round < 500; round++){
+            byte[] text = ByteCounterTest.randomText(rnd, rnd.nextInt(80));
+            int[] cuts = new int[rnd.nextInt(12)];
+            for(int i = 0; i < cuts.length; i++){
+                cuts[i] = rnd.nextInt(text.length + 1);
+            }
+            Arrays.sort(cuts);
+            assertArrayEquals(ByteCounterTest.scannerCounts(text), countMerged(text, cuts));
+        }
+    }
+
+    @Test
+    @DisplayName("count(file): matches Scanner for chunk sizes from 1 byte up")
+    void testCountFile() throws IOException
+    {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            Random rnd = new Random(2000);
+            for(int round = 0; round < 60; round++){
+                byte[] text = ByteCounterTest.randomText(rnd, rnd.nextInt(400));
+                long[] expected = ByteCounterTest.scannerCounts(text);
+                for(long chunk : new long[] {1, 2, 3, 7, 64, 0}){
+                    assertArrayEquals(expected, countFile(text, pool, chunk));
+                }
+            }
+            assertArrayEquals(new long[] {0, 0, 0}, countFile(new byte[0], pool, 1));
+        }
+        finally{
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("count(file): lines longer than the 64 KB look-ahead are cut mid-line")
+    void testLongLines() throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 30000; i++){
+            sb.append(i % 7 == 0 ? "😀 " : "ab\r");
+        }
+        sb.append("\n");
+        for(int i = 0; i < 40000; i++){
+            sb.append("word ");
+        }
+        byte[] text = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try{
+            long[] expected = ByteCounterTest.scannerCounts(text);
+            for(long chunk : new long[] {1000, 4099, 1 << 16, 1 << 20}){
+                assertArrayEquals(expected, countFile(text, pool, chunk));
+            }
+        }
+        finally{
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/*
+ * A list of ints indexed by long, for lists too large for a Java int[].
+ * Elements are stored off-heap in fixed-size chunks of direct memory, so the
+ * garbage collector only ever sees the small chunk directory, not the data.
+ * Growing adds chunks (nothing is copied); removing drops empty chunks.
+ *
+ * Direct memory is limited by -XX:MaxDirectMemorySize, which defaults to the
+ * maximum heap size (-Xmx). A list bigger than the heap therefore needs that
+ * flag raised, e.g. -XX:MaxDirectMemorySize=16g for 4 billion ints. A dropped
+ * chunk's memory is only given back once the garbage collector has found the
+ * chunk unreachable, not when clear() or remove() returns.
+ */
+public class BigIntArrayList {
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20; // 4 MB of ints per chunk
+    private static final int COPY_BLOCK = 8192;
+
+    private IntBuffer[] chunks;
+    private int chunkCount;
+    private final int chunkShift;
+    private final int chunkMask;
+    private long size;
+    private long cursor;
+
+    /*
+     * Creates an empty BigIntArrayList with chunks of 2^20 ints.
+     */
+    public BigIntArrayList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /*
+     * Creates an empty BigIntArrayList with the given chunk size.
+     *
+     * @param chunkSize The number of ints per off-heap chunk (a power of two).
+     */
+    public BigIntArrayList(int chunkSize) {
+        if (chunkSize < 1 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("chunkSize must be a power of two");
+        }
+        chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        chunkMask = chunkSize - 1;
+        chunks = new IntBuffer[8];
+        chunkCount = 0;
+        size = 0;
+        cursor = 0;
+    }
+
+    /*
+     * Appends an integer to the end of the list.
+     * Allocates a new chunk when the last one becomes full.
+     *
+     * @param e The integer to append.
+     */
+    public void add(int e) {
+        ensureCapacity(size + 1);
+        chunks[(int) (size >>> chunkShift)].put((int) (size & chunkMask), e);
+        size++;
+    }
+
+    /*
+     * Inserts an integer at the specified index, shifting elements to the right.
+     *
+     * @param index The position to insert at (0..size).
+     * @param e The integer to insert.
+     */
+    public void add(long index, int e) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+        ensureCapacity(size + 1);
+        move(index, index + 1, size - index);
+        set(index, e);
+        size++;
+    }
+
+    /*
+     * Returns the integer stored at the specified index.
+     *
+     * @param index The position to retrieve (0..size-1).
+     * @return The integer at the given index.
+     */
+    public int get(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return chunks[(int) (index >>> chunkShift)].get((int) (index & chunkMask));
+    }
+
+    /*
+     * Clears the list (size 0, cursor 0) and drops every chunk.
+     */
+    public void clear() {
+        chunks = new IntBuffer[8];
+        chunkCount = 0;
+        size = 0;
+        cursor = 0;
+    }
+
+    /*
+     * Checks whether the list contains no elements.
+     *
+     * @return true if the list is empty; false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+     * Removes and returns the element at the specified index, shifting elements left.
+     * Keeps at most one spare chunk past the end; any further empty chunks are dropped.
+     *
+     * @param index The position to remove (0..size-1).
+     * @return The removed integer value.
+     */
+    public int remove(long index) {
+        int removed = get(index);
+
+        move(index + 1, index, size - index - 1);
+        size--;
+
+        long needed = (size + chunkMask) >>> chunkShift;
+        while (chunkCount > needed + 1) chunks[--chunkCount] = null;
+
+        if (cursor > size) cursor = size;
+        return removed;
+    }
+
+    /*
+     * Returns the number of elements currently stored in the list.
+     *
+     * @return The logical size of the list.
+     */
+    public long size() {
+        return size;
+    }
+
+    /*
+     * Returns the number of ints the allocated chunks can hold.
+     *
+     * @return The current capacity.
+     */
+    public long capacity() {
+        return (long) chunkCount << chunkShift;
+    }
+
+    /*
+     * Returns the stored integers as a single string, separated by one space.
+     * Returns "" if the list is empty.
+     *
+     * @return A space-separated string of the stored integers.
+     */
+    public String toString() {
+        if (size == 0) return "";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(get(0));
+        for (long i = 1; i < size; i++) sb.append(' ').append(get(i));
+        return sb.toString();
+    }
+
+    /*
+     * Resets the internal cursor used by next() back to the beginning (0).
+     */
+    public void reset() {
+        cursor = 0;
+    }
+
+    /*
+     * Returns the element at the current cursor position and then increments
+     * the cursor.
+     *
+     * @return The next integer in iteration order.
+     * @throws Exception If the end of stored data is reached.
+     */
+    public int next() throws Exception {
+        if (cursor >= size) throw new Exception("End of stored data is reached.");
+        int val = get(cursor);
+        cursor++;
+        return val;
+    }
+
+    /*
+     * Allocates chunks until at least minCapacity ints fit. Only the chunk
+     * directory is ever copied, never the data.
+     *
+     * @param minCapacity The number of elements the list must be able to hold.
+     * @throws OutOfMemoryError If the direct memory limit is reached.
+     */
+    private void ensureCapacity(long minCapacity) {
+        while (capacity() < minCapacity) {
+            if (chunkCount == chunks.length) {
+                IntBuffer[] bigger = new IntBuffer[chunks.length * 2];
+                System.arraycopy(chunks, 0, bigger, 0, chunkCount);
+                chunks = bigger;
+            }
+            ByteBuffer chunk;
+            try {
+                chunk = ByteBuffer.allocateDirect((chunkMask + 1) * Integer.BYTES);
+            } catch (OutOfMemoryError e) {
+                OutOfMemoryError more = new OutOfMemoryError("No direct memory for " + minCapacity
+                        + " ints; raise -XX:MaxDirectMemorySize (defaults to -Xmx)");
+                more.initCause(e);
+                throw more;
+            }
+            chunks[chunkCount++] = chunk.order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+    }
+
+    /*
+     * Stores e at index without any bounds check (index < capacity).
+     */
+    private void set(long index, int e) {
+        chunks[(int) (index >>> chunkShift)].put((int) (index & chunkMask), e);
+    }
+
+    /*
+     * Copies len ints from position from to position to, across chunk
+     * boundaries, in blocks through a small heap buffer. Works for
+     * overlapping ranges in either direction.
+     */
+    private void move(long from, long to, long len) {
+        if (len <= 0 || from == to) return;
+
+        int[] block = new int[(int) Math.min(COPY_BLOCK, len)];
+        if (to < from) {
+            for (long done = 0; done < len; ) {
+                int n = (int) Math.min(block.length, len - done);
+                transfer(from + done, block, n, true);
+                transfer(to + done, block, n, false);
+                done += n;
+            }
+        } else {
+            for (long left = len; left > 0; ) {
+                int n = (int) Math.min(block.length, left);
+                left -= n;
+                transfer(from + left, block, n, true);
+                transfer(to + left, block, n, false);
+            }
+        }
+    }
+
+    /*
+     * Reads (read == true) or writes n ints between the list, starting at
+     * pos, and block[0..n-1].
+     */
+    private void transfer(long pos, int[] block, int n, boolean read) {
+        int off = 0;
+        while (off < n) {
+            IntBuffer chunk = chunks[(int) (pos >>> chunkShift)];
+            int at = (int) (pos & chunkMask);
+            int len = Math.min(n - off, chunkMask + 1 - at);
+            if (read) chunk.get(at, block, off, len);
+            else chunk.put(at, block, off, len);
+            off += len;
+            pos += len;
+        }
+    }
+}
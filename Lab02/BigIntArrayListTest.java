@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+public class BigIntArrayListTest {
+
+    @Test
+    @DisplayName("constructor: initial state + chunk size check")
+    void testConstructor() {
+        BigIntArrayList list = new BigIntArrayList();
+        assertEquals(0, list.size());
+        assertEquals(0, list.capacity());
+        assertTrue(list.isEmpty());
+        assertEquals("", list.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> new BigIntArrayList(6));
+        assertThrows(IllegalArgumentException.class, () -> new BigIntArrayList(0));
+    }
+
+    @Test
+    @DisplayName("add(e)/get(index): append across chunks")
+    void testAddAndGet() {
+        BigIntArrayList list = new BigIntArrayList(4);
+        for (int i = 0; i < 10; i++) list.add(i * 3);
+        assertEquals(10, list.size());
+        assertEquals(12, list.capacity());
+        assertEquals(0, list.get(0));
+        assertEquals(12, list.get(4));
+        assertEquals(27, list.get(9));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(10));
+    }
+
+    @Test
+    @DisplayName("add(index,e): insert shifts across chunk boundaries + bounds")
+    void testAddAtIndex() {
+        BigIntArrayList list = new BigIntArrayList(4);
+        for (int i = 1; i <= 8; i++) list.add(i);
+
+        list.add(0, 0);
+        assertEquals("0 1 2 3 4 5 6 7 8", list.toString());
+        list.add(4, 99); // chunk boundary
+        assertEquals("0 1 2 3 99 4 5 6 7 8", list.toString());
+        list.add(list.size(), 100);
+        assertEquals(100, list.get(10));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(-1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(list.size() + 1, 1));
+    }
+
+    @Test
+    @DisplayName("remove(index): shifts left and drops spare chunks")
+    void testRemove() {
+        BigIntArrayList list = new BigIntArrayList(4);
+        for (int i = 0; i < 16; i++) list.add(i);
+        assertEquals(16, list.capacity());
+
+        assertEquals(3, list.remove(3));
+        assertEquals(4, list.get(3));
+        assertEquals(15, list.get(14));
+
+        while (list.size() > 3) list.remove(0);
+        assertEquals("13 14 15", list.toString());
+        assertEquals(8, list.capacity()); // one used chunk + one spare
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(-1));
+    }
+
+    @Test
+    @DisplayName("large mid-list shifts match IntArrayList")
+    void testMatchesIntArrayList() {
+        BigIntArrayList big = new BigIntArrayList(64);
+        IntArrayList small = new IntArrayList();
+        for (int i = 0; i < 20000; i++) {
+            big.add(i);
+            small.add(i);
+        }
+        big.add(7, -1);
+        small.add(7, -1);
+        big.remove(12345);
+        small.remove(12345);
+
+        assertEquals(small.size(), big.size());
+        for (int i = 0; i < small.size(); i++) assertEquals(small.get(i), big.get(i));
+    }
+
+    @Test
+    @DisplayName("clear(), reset() and next()")
+    void testClearResetAndNext() throws Exception {
+        BigIntArrayList list = new BigIntArrayList(2);
+        list.add(10);
+        list.add(20);
+        list.add(30);
+
+        assertEquals(10, list.next());
+        assertEquals(20, list.next());
+        assertEquals(30, list.next());
+        Exception ex = assertThrows(Exception.class, () -> list.next());
+        assertEquals("End of stored data is reached.", ex.getMessage());
+
+        list.reset();
+        assertEquals(10, list.next());
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.capacity());
+        assertThrows(Exception.class, () -> list.next());
+    }
+}
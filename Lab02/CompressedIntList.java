@@ -0,0 +1,243 @@
+import java.util.function.IntConsumer;
+
+/*
+ * A read-only, compressed copy of an IntArrayList.
+ *
+ * Values are stored in blocks of 128. Each block keeps a reference value and
+ * bit-packs every value as its offset from that reference, using only as many
+ * bits as the largest offset in the block needs (frame-of-reference). In delta
+ * mode the block packs the differences between neighbours instead, which is
+ * what makes sorted IDs small. A block of 128 values at b bits takes exactly
+ * 2 * b longs, so blocks always start on a word boundary and get(index) can
+ * jump straight to the right block.
+ */
+public class CompressedIntList {
+    private static final int BLOCK_SHIFT = 7;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT; // 128
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private final int size;
+    private final boolean delta;
+    private final int[] base;     // FOR: block minimum; delta: first value of the block
+    private final int[] minDelta; // delta only: smallest neighbour difference in the block
+    private final byte[] bits;    // bits per packed value, 0..32
+    private final int[] offset;   // first word of each block in words
+    private long[] words;
+
+    /*
+     * Compresses the list, using delta mode if the list is known to be sorted.
+     *
+     * @param list The list to compress.
+     */
+    public CompressedIntList(IntArrayList list) {
+        this(list, list.isSorted());
+    }
+
+    /*
+     * Compresses the list.
+     *
+     * @param list The list to compress.
+     * @param delta true to pack differences between neighbours (best for
+     *        sorted or slowly changing values); false to pack each value's
+     *        offset from the block minimum.
+     */
+    public CompressedIntList(IntArrayList list, boolean delta) {
+        this.size = list.size();
+        this.delta = delta;
+
+        int blocks = (size + BLOCK_MASK) >>> BLOCK_SHIFT;
+        base = new int[blocks];
+        minDelta = delta ? new int[blocks] : null;
+        bits = new byte[blocks];
+        offset = new int[blocks];
+        words = new long[Math.max(16, blocks * 8)];
+
+        int[] block = new int[BLOCK_SIZE];
+        long[] packed = new long[BLOCK_SIZE];
+        int used = 0;
+        for (int b = 0; b < blocks; b++) {
+            int start = b << BLOCK_SHIFT;
+            int n = Math.min(BLOCK_SIZE, size - start);
+            for (int i = 0; i < n; i++) block[i] = list.get(start + i);
+
+            long max = encode(b, block, n, packed);
+            int width = 64 - Long.numberOfLeadingZeros(max);
+            bits[b] = (byte) width;
+            offset[b] = used;
+
+            int need = used + 2 * width;
+            if (need > words.length) {
+                long[] bigger = new long[Math.max(need, words.length * 2)];
+                System.arraycopy(words, 0, bigger, 0, used);
+                words = bigger;
+            }
+            for (int i = 0; i < n; i++) pack(used, width, i, packed[i]);
+            used = need;
+        }
+
+        long[] trimmed = new long[used];
+        System.arraycopy(words, 0, trimmed, 0, used);
+        words = trimmed;
+    }
+
+    /*
+     * Returns the number of values stored.
+     *
+     * @return The logical size of the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Returns whether blocks hold neighbour differences (delta mode).
+     *
+     * @return true in delta mode; false in plain frame-of-reference mode.
+     */
+    public boolean isDelta() {
+        return delta;
+    }
+
+    /*
+     * Returns the value at the specified index. Skips straight to the block
+     * holding it; in delta mode the block is then decoded up to the index.
+     *
+     * @param index The position to retrieve (0..size-1).
+     * @return The integer at the given index.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        int b = index >>> BLOCK_SHIFT;
+        int j = index & BLOCK_MASK;
+        int width = bits[b];
+        if (!delta) return base[b] + (int) unpack(offset[b], width, j);
+
+        int v = base[b];
+        for (int i = 1; i <= j; i++) v += (int) unpack(offset[b], width, i) + minDelta[b];
+        return v;
+    }
+
+    /*
+     * Passes every value, in order, to action. Decodes a whole block at a
+     * time into a small reusable buffer.
+     *
+     * @param action The consumer to call for each value.
+     */
+    public void forEach(IntConsumer action) {
+        int[] block = new int[BLOCK_SIZE];
+        for (int b = 0; b < base.length; b++) {
+            int n = decodeBlock(b, block);
+            for (int i = 0; i < n; i++) action.accept(block[i]);
+        }
+    }
+
+    /*
+     * Decompresses into a new IntArrayList.
+     *
+     * @return A list holding the same values in the same order.
+     */
+    public IntArrayList toIntArrayList() {
+        IntArrayList list = new IntArrayList();
+        list.ensureCapacity(size);
+        int[] block = new int[BLOCK_SIZE];
+        for (int b = 0; b < base.length; b++) {
+            int n = decodeBlock(b, block);
+            list.addAll(list.size(), block, 0, n);
+        }
+        return list;
+    }
+
+    /*
+     * Returns roughly how many bytes of memory the compressed data takes
+     * (packed words plus per-block headers).
+     *
+     * @return The approximate compressed size in bytes.
+     */
+    public long compressedBytes() {
+        long perBlock = 4 + 1 + 4 + (delta ? 4 : 0);
+        return 8L * words.length + perBlock * base.length;
+    }
+
+    /*
+     * Returns the values of the list formatted like IntArrayList.toString().
+     *
+     * @return A space-separated string of the stored integers.
+     */
+    public String toString() {
+        return toIntArrayList().toString();
+    }
+
+    /*
+     * Fills in the header for block b and the unsigned values to pack.
+     * Returns the largest packed value, which decides the bit width.
+     */
+    private long encode(int b, int[] block, int n, long[] packed) {
+        long max = 0;
+        if (!delta) {
+            int min = block[0];
+            for (int i = 1; i < n; i++) min = Math.min(min, block[i]);
+            base[b] = min;
+            for (int i = 0; i < n; i++) {
+                packed[i] = (long) block[i] - min;
+                max = Math.max(max, packed[i]);
+            }
+            return max;
+        }
+
+        // differences wrap around like int arithmetic, so decoding with int
+        // addition gives back the exact values
+        base[b] = block[0];
+        int min = 0;
+        if (n > 1) {
+            min = block[1] - block[0];
+            for (int i = 2; i < n; i++) min = Math.min(min, block[i] - block[i - 1]);
+        }
+        minDelta[b] = min;
+        packed[0] = 0;
+        for (int i = 1; i < n; i++) {
+            packed[i] = (long) (block[i] - block[i - 1]) - min;
+            max = Math.max(max, packed[i]);
+        }
+        return max;
+    }
+
+    /*
+     * Decodes block b into out and returns how many values it holds.
+     */
+    private int decodeBlock(int b, int[] out) {
+        int n = Math.min(BLOCK_SIZE, size - (b << BLOCK_SHIFT));
+        int start = offset[b];
+        int width = bits[b];
+        if (!delta) {
+            for (int i = 0; i < n; i++) out[i] = base[b] + (int) unpack(start, width, i);
+        } else {
+            int v = base[b];
+            out[0] = v;
+            for (int i = 1; i < n; i++) {
+                v += (int) unpack(start, width, i) + minDelta[b];
+                out[i] = v;
+            }
+        }
+        return n;
+    }
+
+    private void pack(int start, int width, int i, long value) {
+        if (width == 0) return;
+        long bit = (long) i * width;
+        int w = start + (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        words[w] |= value << shift;
+        if (shift + width > 64) words[w + 1] |= value >>> (64 - shift);
+    }
+
+    private long unpack(int start, int width, int i) {
+        if (width == 0) return 0;
+        long bit = (long) i * width;
+        int w = start + (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        long v = words[w] >>> shift;
+        if (shift + width > 64) v |= words[w + 1] << (64 - shift);
+        return v & ((1L << width) - 1);
+    }
+}
@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Random;
+
+public class CompressedIntListTest {
+
+    private static void assertSameValues(IntArrayList expected, CompressedIntList actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) assertEquals(expected.get(i), actual.get(i));
+        assertEquals(expected.toString(), actual.toIntArrayList().toString());
+
+        StringBuilder sb = new StringBuilder();
+        actual.forEach(x -> sb.append(sb.length() == 0 ? "" : " ").append(x));
+        assertEquals(expected.toString(), sb.toString());
+    }
+
+    @Test
+    @DisplayName("empty and tiny lists")
+    void testSmall() {
+        CompressedIntList empty = new CompressedIntList(new IntArrayList());
+        assertEquals(0, empty.size());
+        assertEquals("", empty.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+
+        IntArrayList one = new IntArrayList();
+        one.add(-42);
+        assertSameValues(one, new CompressedIntList(one, false));
+        assertSameValues(one, new CompressedIntList(one, true));
+    }
+
+    @Test
+    @DisplayName("frame-of-reference: random values incl. extremes, partial last block")
+    void testFrameOfReference() {
+        Random rnd = new Random(7);
+        IntArrayList list = new IntArrayList();
+        for (int i = 0; i < 1000; i++) list.add(rnd.nextInt(1000) + 5000);
+        list.add(Integer.MIN_VALUE);
+        list.add(Integer.MAX_VALUE);
+        for (int i = 0; i < 300; i++) list.add(rnd.nextInt());
+
+        CompressedIntList c = new CompressedIntList(list, false);
+        assertFalse(c.isDelta());
+        assertSameValues(list, c);
+        assertThrows(IndexOutOfBoundsException.class, () -> c.get(list.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> c.get(-1));
+    }
+
+    @Test
+    @DisplayName("delta: sorted ids compress well; wrap-around deltas still exact")
+    void testDelta() {
+        IntArrayList ids = new IntArrayList();
+        Random rnd = new Random(11);
+        int id = 1000000;
+        for (int i = 0; i < 128 * 40 + 17; i++) {
+            id += 1 + rnd.nextInt(15);
+            ids.add(id);
+        }
+        assertTrue(ids.isSorted());
+
+        CompressedIntList c = new CompressedIntList(ids);
+        assertTrue(c.isDelta());
+        assertSameValues(ids, c);
+        assertTrue(c.compressedBytes() * 4 < 4L * ids.size()); // at least 4x smaller
+
+        IntArrayList jumpy = new IntArrayList();
+        jumpy.addAll(new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, -5, -5});
+        assertSameValues(jumpy, new CompressedIntList(jumpy, true));
+    }
+
+    @Test
+    @DisplayName("constant blocks use zero bits")
+    void testConstant() {
+        IntArrayList list = new IntArrayList();
+        for (int i = 0; i < 500; i++) list.add(9);
+        CompressedIntList c = new CompressedIntList(list, false);
+        assertSameValues(list, c);
+        assertTrue(c.compressedBytes() < 100);
+    }
+}
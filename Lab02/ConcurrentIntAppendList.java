@@ -0,0 +1,227 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * An append-only list of ints that many threads can add to at once without
+ * a lock.
+ *
+ * A producer claims its slot(s) by bumping an atomic counter, writes the
+ * values, and then adds the number it wrote to a counter kept for each
+ * 1024-slot segment. No producer ever waits for another one. size() is the
+ * longest prefix of slots known to be written: it moves forward over every
+ * segment whose claimed slots have all been counted. Readers can copy that
+ * prefix while producers keep appending. A producer that is descheduled
+ * between claiming and writing only hides the slots from its segment on
+ * until it resumes; the other producers carry on.
+ *
+ * Storage is a fixed directory of chunks where chunk k holds 1024 * 2^k ints
+ * (the same doubling layout as DoublingList). New chunks are added as the
+ * list grows; existing chunks and the directory are never copied. A chunk is
+ * allocated before any slot in it is claimed, so once a slot is claimed
+ * nothing can stop its producer from writing it.
+ */
+public class ConcurrentIntAppendList {
+    private static final int FIRST_SHIFT = 10;
+    private static final int FIRST_CHUNK = 1 << FIRST_SHIFT;          // 1024
+    private static final int MAX_CHUNKS = 31 - FIRST_SHIFT;            // chunks 0..20
+    private static final int SEGMENT_SHIFT = FIRST_SHIFT;              // slots per written counter
+    private static final int SEGMENT = 1 << SEGMENT_SHIFT;
+    private static final int MAX_SIZE = (int) (((long) FIRST_CHUNK << MAX_CHUNKS) - FIRST_CHUNK);
+
+    /*
+     * One chunk of values, with a count of the slots written so far in each
+     * of its segments.
+     */
+    private static final class Chunk {
+        final int[] values;
+        final AtomicIntegerArray written;
+
+        Chunk(int capacity) {
+            values = new int[capacity];
+            written = new AtomicIntegerArray(capacity >>> SEGMENT_SHIFT);
+        }
+    }
+
+    private final AtomicReferenceArray<Chunk> chunks;
+    private final AtomicInteger claimed;   // slots handed out to producers
+    private final AtomicInteger published; // slots known to be written; only grows
+
+    /*
+     * Creates an empty ConcurrentIntAppendList.
+     */
+    public ConcurrentIntAppendList() {
+        chunks = new AtomicReferenceArray<Chunk>(MAX_CHUNKS);
+        claimed = new AtomicInteger();
+        published = new AtomicInteger();
+    }
+
+    /*
+     * Appends an integer to the end of the list. Safe to call from any
+     * number of threads at once.
+     *
+     * @param e The integer to append.
+     * @throws IllegalStateException If the list is full.
+     */
+    public void add(int e) {
+        put(claim(1), e);
+    }
+
+    /*
+     * Appends every integer in src as one contiguous run. Claims all the
+     * slots with a single atomic update.
+     *
+     * @param src The integers to append.
+     * @throws IllegalStateException If the list does not have room for them.
+     */
+    public void addAll(int[] src) {
+        if (src.length == 0) return;
+        int index = claim(src.length);
+
+        int done = 0;
+        while (done < src.length) {
+            int at = index + done;
+            int k = chunkOf(at);
+            int off = at - chunkStart(k);
+            int n = Math.min(src.length - done, chunkCapacity(k) - off);
+            System.arraycopy(src, done, chunks.get(k).values, off, n);
+            done += n;
+        }
+        written(index, src.length);
+    }
+
+    /*
+     * Returns the integer stored at the specified published index.
+     *
+     * @param index The position to retrieve (0..size-1).
+     * @return The integer at the given index.
+     */
+    public int get(int index) {
+        if (index < 0 || (index >= published.get() && index >= size())) throw new IndexOutOfBoundsException();
+        int k = chunkOf(index);
+        return chunks.get(k).values[index - chunkStart(k)];
+    }
+
+    /*
+     * Returns the number of published elements. Every index below this
+     * value has been fully written. It stops short of any slot a producer
+     * has claimed but not written yet, and may also leave out written slots
+     * in that slot's 1024-slot segment until the segment is complete.
+     *
+     * @return The published size of the list.
+     */
+    public int size() {
+        int from = published.get();
+        int p = from;
+        while (p < claimed.get()) {
+            // read the segment's count before claimed: every slot it counts
+            // was claimed before that, so it is below the claimed value read
+            int k = chunkOf(p);
+            int segStart = p & -SEGMENT;
+            int w = chunks.get(k).written.get((segStart - chunkStart(k)) >>> SEGMENT_SHIFT);
+            int end = Math.min(claimed.get(), segStart + SEGMENT);
+            if (segStart + w != end) break; // a claimed slot in here is still being written
+            p = end;
+            if (end < segStart + SEGMENT) break;
+        }
+        while (p > from && !published.compareAndSet(from, p)) {
+            from = published.get();
+        }
+        return Math.max(p, from);
+    }
+
+    /*
+     * Checks whether no element has been published yet.
+     *
+     * @return true if the list is empty; false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*
+     * Copies the currently published prefix into a new IntArrayList, one
+     * System.arraycopy per chunk. Producers are never blocked.
+     *
+     * @return A list holding the first size() elements at the time of the call.
+     */
+    public IntArrayList snapshot() {
+        int n = size();
+        IntArrayList copy = new IntArrayList();
+        copy.ensureCapacity(n);
+
+        int done = 0;
+        for (int k = 0; done < n; k++) {
+            int len = Math.min(n - done, chunkCapacity(k));
+            copy.addAll(done, chunks.get(k).values, 0, len);
+            done += len;
+        }
+        return copy;
+    }
+
+    /*
+     * Returns the published elements as a single string, separated by one space.
+     *
+     * @return A space-separated string of the published integers.
+     */
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /*
+     * Reserves count consecutive slots and returns the first one. The
+     * chunks they fall in are allocated first, so an OutOfMemoryError is
+     * thrown before anything is claimed rather than leaving a claimed slot
+     * that is never written.
+     * Package-private so tests can stand in for a stalled producer.
+     */
+    int claim(int count) {
+        while (true) {
+            int index = claimed.get();
+            if (count > MAX_SIZE - index) throw new IllegalStateException("List is full.");
+            for (int k = chunkOf(index), last = chunkOf(index + count - 1); k <= last; k++) chunk(k);
+            if (claimed.compareAndSet(index, index + count)) return index;
+        }
+    }
+
+    /*
+     * Writes e into the claimed slot index and counts it as written.
+     */
+    void put(int index, int e) {
+        int k = chunkOf(index);
+        chunks.get(k).values[index - chunkStart(k)] = e;
+        written(index, 1);
+    }
+
+    /*
+     * Adds the written slots index..index+count-1 to their segments' counts.
+     */
+    private void written(int index, int count) {
+        while (count > 0) {
+            int k = chunkOf(index);
+            int n = Math.min(count, SEGMENT - (index & (SEGMENT - 1)));
+            chunks.get(k).written.addAndGet((index - chunkStart(k)) >>> SEGMENT_SHIFT, n);
+            index += n;
+            count -= n;
+        }
+    }
+
+    /*
+     * Allocates chunk k if no producer has done so yet.
+     */
+    private void chunk(int k) {
+        if (chunks.get(k) == null) chunks.compareAndSet(k, null, new Chunk(chunkCapacity(k)));
+    }
+
+    private static int chunkOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_SHIFT) + 1);
+    }
+
+    private static int chunkStart(int k) {
+        return (FIRST_CHUNK << k) - FIRST_CHUNK;
+    }
+
+    private static int chunkCapacity(int k) {
+        return FIRST_CHUNK << k;
+    }
+}
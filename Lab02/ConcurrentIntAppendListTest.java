@@ -0,0 +1,98 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Arrays;
+
+public class ConcurrentIntAppendListTest {
+
+    @Test
+    @DisplayName("single thread: add, addAll across chunks, get + bounds")
+    void testSingleThread() {
+        ConcurrentIntAppendList list = new ConcurrentIntAppendList();
+        assertTrue(list.isEmpty());
+        assertEquals("", list.toString());
+
+        for (int i = 0; i < 1000; i++) list.add(i);
+        int[] run = new int[5000];
+        for (int i = 0; i < run.length; i++) run[i] = 1000 + i;
+        list.addAll(run); // spans chunks 0..2
+
+        assertEquals(6000, list.size());
+        for (int i = 0; i < 6000; i++) assertEquals(i, list.get(i));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(6000));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+
+        IntArrayList copy = list.snapshot();
+        assertEquals(6000, copy.size());
+        assertEquals(5999, copy.get(5999));
+    }
+
+    @Test
+    @DisplayName("many producers: nothing lost, per-thread order kept")
+    void testManyProducers() throws InterruptedException {
+        ConcurrentIntAppendList list = new ConcurrentIntAppendList();
+        int threads = 4;
+        int perThread = 20000;
+
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (i % 100 == 0) list.addAll(new int[] {id * perThread + i});
+                    else list.add(id * perThread + i);
+                }
+            });
+            producers[t].start();
+        }
+
+        // readers see growing prefixes while the producers run
+        IntArrayList previous = list.snapshot();
+        while (list.size() < threads * perThread) {
+            Thread.yield();
+            IntArrayList next = list.snapshot();
+            assertTrue(next.size() >= previous.size());
+            for (int i = 0; i < previous.size(); i += 97) assertEquals(previous.get(i), next.get(i));
+            previous = next;
+        }
+        for (Thread p : producers) p.join();
+
+        IntArrayList all = list.snapshot();
+        assertEquals(threads * perThread, all.size());
+
+        int[] last = new int[threads];
+        Arrays.fill(last, -1);
+        boolean[] seen = new boolean[threads * perThread];
+        for (int i = 0; i < all.size(); i++) {
+            int v = all.get(i);
+            assertFalse(seen[v]);
+            seen[v] = true;
+            assertTrue(v > last[v / perThread]);
+            last[v / perThread] = v;
+        }
+    }
+
+    @Test
+    @DisplayName("a producer stalled after claiming does not hold up the others")
+    void testStalledProducer() throws InterruptedException {
+        ConcurrentIntAppendList list = new ConcurrentIntAppendList();
+        list.add(-1);
+        assertEquals(1, list.size());
+        int hole = list.claim(1); // claimed, not written yet
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 5000; i++) list.add(i);
+        });
+        producer.start();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+
+        assertEquals(1, list.size()); // nothing past the hole is visible yet
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+
+        list.put(hole, 42);
+        assertEquals(5002, list.size());
+        assertEquals(42, list.get(1));
+        assertEquals(4999, list.get(5001));
+    }
+}
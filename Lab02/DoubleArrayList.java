@@ -0,0 +1,630 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Elements are ordered and compared with Double.compare, the same total
+ * order Arrays.sort uses (-0.0 before 0.0, NaN after everything and equal
+ * to itself), so sort(), the sorted flag and every search agree.
+ */
+public class DoubleArrayList {
+    private double[] data;
+    private int size;
+    private int cursor;
+    private final int initialCapacity;
+    private final GrowthPolicy policy;
+    private boolean sorted;
+    private int modCount; // bumped by every structural change; checked by cursors
+
+    /*
+     * Creates an empty DoubleArrayList with an internal array capacity of 10.
+     * The array grows by 10 when full and shrinks when more than 10 slots are empty.
+     */
+    public DoubleArrayList() {
+        this(10, GrowthPolicy.fixed(10));
+    }
+
+    /*
+     * Creates an empty DoubleArrayList with a capacity of 10 that resizes
+     * according to the given policy.
+     *
+     * @param policy The growth/shrink policy to use.
+     */
+    public DoubleArrayList(GrowthPolicy policy) {
+        this(10, policy);
+    }
+
+    /*
+     * Creates an empty DoubleArrayList with the given capacity that resizes
+     * according to the given policy.
+     *
+     * @param initialCapacity The starting capacity (also used by clear()).
+     * @param policy The growth/shrink policy to use.
+     */
+    public DoubleArrayList(int initialCapacity, GrowthPolicy policy) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must not be negative");
+        if (policy == null) throw new NullPointerException("policy");
+        this.initialCapacity = initialCapacity;
+        this.policy = policy;
+        data = new double[initialCapacity];
+        size = 0;
+        cursor = 0;
+        sorted = true;
+    }
+
+    /*
+     * Appends a double to the end of the list.
+     * Grows the internal array (see GrowthPolicy) when the array becomes full.
+     *
+     * @param e The double to append.
+     */
+    public void add(double e) {
+        if (size == data.length) ensureCapacity(size + 1);
+        if (size > 0 && Double.compare(e, data[size - 1]) < 0) sorted = false;
+        data[size] = e;
+        size++;
+        modCount++;
+    }
+
+    /*
+     * Inserts a double at the specified index, shifting elements to the right.
+     * Grows the internal array (see GrowthPolicy) when the array becomes full.
+     *
+     * @param index The position to insert at (0..size).
+     * @param e The double to insert.
+     */
+    public void add(int index, double e) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+        if (size == data.length) ensureCapacity(size + 1);
+        if ((index > 0 && Double.compare(data[index - 1], e) > 0)
+            || (index < size && Double.compare(e, data[index]) > 0)) sorted = false;
+
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = e;
+        size++;
+        modCount++;
+    }
+
+    /*
+     * Appends every double in src to the end of the list.
+     *
+     * @param src The doubles to append.
+     */
+    public void addAll(double[] src) {
+        addAll(size, src, 0, src.length);
+    }
+
+    /*
+     * Appends every double stored in other to the end of the list.
+     * Passing this list appends a copy of its own contents.
+     *
+     * @param other The list whose elements are appended.
+     */
+    public void addAll(DoubleArrayList other) {
+        addAll(size, other.data, 0, other.size);
+    }
+
+    /*
+     * Inserts src[off..off+len-1] at the specified index, shifting the
+     * existing elements right. Uses one capacity check and one array copy
+     * for the tail, no matter how many values are inserted.
+     *
+     * @param index The position to insert at (0..size).
+     * @param src The array holding the doubles to insert.
+     * @param off The first position in src to copy from.
+     * @param len The number of doubles to insert.
+     */
+    public void addAll(int index, double[] src, int off, int len) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        if (off < 0 || len < 0 || off > src.length - len) throw new IndexOutOfBoundsException();
+        if (len == 0) return;
+        if (sorted) sorted = staysSorted(index, src, off, len);
+
+        ensureCapacity(size + len);
+        System.arraycopy(data, index, data, index + len, size - index);
+        System.arraycopy(src, off, data, index, len);
+        size += len;
+        modCount++;
+    }
+
+    /*
+     * Returns the double stored at the specified index.
+     *
+     * @param index The position to retrieve (0..size-1).
+     * @return The double at the given index.
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return data[index];
+    }
+
+    /*
+     * Clears the list back to its initial state (size 0, initial capacity, cursor 0).
+     */
+    public void clear() {
+        data = new double[initialCapacity];
+        size = 0;
+        cursor = 0;
+        sorted = true;
+        modCount++;
+    }
+
+    /*
+     * Checks whether the list contains no elements.
+     *
+     * @return true if the list is empty; false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+     * Removes and returns the element at the specified index, shifting elements left.
+     * Shrinks the internal array when the GrowthPolicy says so (by default when
+     * empty slots become greater than 10, keeping exactly 10 empty slots).
+     *
+     * @param index The position to remove (0..size-1).
+     * @return The removed double value.
+     */
+    public double remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        double removed = data[index];
+
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        modCount++;
+
+        int shrunk = policy.shrink(data.length, size);
+        if (shrunk < data.length) resize(shrunk);
+
+        if (cursor > size) cursor = size;
+        return removed;
+    }
+
+    /*
+     * Removes the elements from index from (inclusive) to index to (exclusive),
+     * shifting the remaining elements left in a single copy. The internal array
+     * is shrunk at most once afterwards.
+     *
+     * @param from The first position to remove (0..size).
+     * @param to The position after the last one removed (from..size).
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size || from > to) throw new IndexOutOfBoundsException();
+        if (from == to) return;
+
+        System.arraycopy(data, to, data, from, size - to);
+        size -= to - from;
+        modCount++;
+
+        int shrunk = policy.shrink(data.length, size);
+        if (shrunk < data.length) resize(shrunk);
+
+        if (cursor > size) cursor = size;
+    }
+
+    /*
+     * Copies the stored doubles into dst if it is large enough, otherwise
+     * into a new array of exactly size() elements.
+     *
+     * @param dst The array to fill, if it has room.
+     * @return The array holding the doubles (dst or a new array).
+     */
+    public double[] toArray(double[] dst) {
+        if (dst.length < size) dst = new double[size];
+        System.arraycopy(data, 0, dst, 0, size);
+        return dst;
+    }
+
+    /*
+     * Returns the number of elements currently stored in the list.
+     *
+     * @return The logical size of the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Returns the length of the internal array (the current capacity).
+     *
+     * @return The internal array length.
+     */
+    public int arraySize() {
+        return data.length;
+    }
+
+    /*
+     * Makes sure the internal array can hold at least minCapacity elements
+     * without another resize. The new capacity comes from the GrowthPolicy.
+     *
+     * @param minCapacity The number of elements the list must be able to hold.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) resize(policy.grow(data.length, minCapacity));
+    }
+
+    /*
+     * Shrinks the internal array so its capacity equals the current size.
+     */
+    public void trimToSize() {
+        if (data.length > size) resize(size);
+    }
+
+    /*
+     * Returns the first index whose element is >= e (size if there is none).
+     * Only meaningful while the list is sorted.
+     */
+    private int lowerBound(double e) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Double.compare(data[mid], e) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /*
+     * Returns the first index whose element is > e (size if there is none).
+     * Only meaningful while the list is sorted.
+     */
+    private int upperBound(double e) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Double.compare(data[mid], e) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /*
+     * Checks whether inserting src[off..off+len-1] at index keeps a sorted
+     * list sorted.
+     */
+    private boolean staysSorted(int index, double[] src, int off, int len) {
+        if (index > 0 && Double.compare(data[index - 1], src[off]) > 0) return false;
+        if (index < size && Double.compare(src[off + len - 1], data[index]) > 0) return false;
+        for (int i = off + 1; i < off + len; i++) {
+            if (Double.compare(src[i - 1], src[i]) > 0) return false;
+        }
+        return true;
+    }
+
+    /*
+     * Copies the stored elements into a new array of the given capacity.
+     *
+     * @param capacity The new array length (>= size).
+     */
+    private void resize(int capacity) {
+        double[] copy = new double[capacity];
+        System.arraycopy(data, 0, copy, 0, size);
+        data = copy;
+    }
+
+    /*
+     * Returns the number of unused (empty) slots in the internal array.
+     *
+     * @return The number of empty slots (arraySize - size).
+     */
+    public int emptyCount() {
+        return data.length - size;
+    }
+
+    /*
+     * Returns the stored doubles as a single string, separated by one space.
+     * Returns "" if the list is empty.
+     *
+     * @return A space-separated string of the stored doubles.
+     */
+    public String toString() {
+        if (size == 0) return "";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(data[0]);
+        for (int i = 1; i < size; i++) sb.append(' ').append(data[i]);
+        return sb.toString();
+    }
+
+    /*
+     * Checks whether the list contains the given double. Takes the
+     * O(log n) binary search path when the list is known to be sorted.
+     *
+     * @param e The double to look for.
+     * @return true if e is stored in the list; false otherwise.
+     */
+    public boolean contains(double e) {
+        return indexOf(e) >= 0;
+    }
+
+    /*
+     * Returns the index of the first occurrence of the given double.
+     * Takes the O(log n) binary search path when the list is known to be sorted.
+     *
+     * @param e The double to look for.
+     * @return The first index holding e, or -1 if it is not in the list.
+     */
+    public int indexOf(double e) {
+        if (sorted) {
+            int i = lowerBound(e);
+            return (i < size && Double.compare(data[i], e) == 0) ? i : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (Double.compare(data[i], e) == 0) return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the sum of all stored doubles (0 for an empty list).
+     * Loops over the backing array directly, adding in index order.
+     *
+     * @return The sum.
+     */
+    public double sum() {
+        double[] a = data;
+        int n = size;
+        double s = 0;
+        for (int i = 0; i < n; i++) s += a[i];
+        return s;
+    }
+
+    /*
+     * Returns the smallest stored double.
+     *
+     * @return The minimum element.
+     * @throws NoSuchElementException If the list is empty.
+     */
+    public double min() {
+        if (size == 0) throw new NoSuchElementException("List is empty.");
+        if (sorted) return data[0];
+        double[] a = data;
+        int n = size;
+        double m = a[0];
+        for (int i = 1; i < n; i++) {
+            if (Double.compare(a[i], m) < 0) m = a[i];
+        }
+        return m;
+    }
+
+    /*
+     * Returns the largest stored double.
+     *
+     * @return The maximum element.
+     * @throws NoSuchElementException If the list is empty.
+     */
+    public double max() {
+        if (size == 0) throw new NoSuchElementException("List is empty.");
+        if (sorted) return data[size - 1];
+        double[] a = data;
+        int n = size;
+        double m = a[0];
+        for (int i = 1; i < n; i++) {
+            if (Double.compare(a[i], m) > 0) m = a[i];
+        }
+        return m;
+    }
+
+    /*
+     * Counts how many stored doubles are equal to e. Uses binary search
+     * on both ends of the run when the list is sorted.
+     *
+     * @param e The double to count.
+     * @return The number of occurrences of e.
+     */
+    public int countEquals(double e) {
+        if (sorted) {
+            return upperBound(e) - lowerBound(e);
+        }
+        double[] a = data;
+        int n = size;
+        int count = 0;
+        for (int i = 0; i < n; i++) count += (Double.compare(a[i], e) == 0) ? 1 : 0;
+        return count;
+    }
+
+    /*
+     * Searches the sorted list for the given double.
+     *
+     * @param e The double to look for.
+     * @return The first index holding e, or (-(insertion point) - 1) if it
+     *         is not in the list, as in Arrays.binarySearch.
+     * @throws IllegalStateException If the list is not known to be sorted.
+     */
+    public int binarySearch(double e) {
+        if (!sorted) throw new IllegalStateException("List is not sorted.");
+        int i = lowerBound(e);
+        return (i < size && Double.compare(data[i], e) == 0) ? i : -(i + 1);
+    }
+
+    /*
+     * Returns whether the elements are known to be in ascending order.
+     * The flag is set by sort()/parallelSort() (and for an empty list) and
+     * is kept up to date by every add; removals never clear it.
+     *
+     * @return true if the list is sorted; false otherwise.
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /*
+     * Sorts the list into ascending order in place.
+     */
+    public void sort() {
+        if (!sorted) Arrays.sort(data, 0, size);
+        sorted = true;
+        modCount++;
+    }
+
+    /*
+     * Sorts the list into ascending order using all available cores.
+     */
+    public void parallelSort() {
+        if (!sorted) Arrays.parallelSort(data, 0, size);
+        sorted = true;
+        modCount++;
+    }
+
+    /*
+     * Returns a sequential DoubleStream over the stored doubles (no boxing).
+     *
+     * @return A stream of the elements in list order.
+     */
+    public DoubleStream doubleStream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    /*
+     * Returns a parallel DoubleStream over the stored doubles. The backing
+     * array is split into even halves, so work spreads across all cores.
+     *
+     * @return A parallel stream of the elements in list order.
+     */
+    public DoubleStream parallelDoubleStream() {
+        return StreamSupport.doubleStream(spliterator(), true);
+    }
+
+    /*
+     * Returns a Spliterator.OfDouble over the stored doubles. It binds to the
+     * backing array when traversal starts, not when it is created.
+     *
+     * @return A spliterator over the elements in list order.
+     */
+    public Spliterator.OfDouble spliterator() {
+        return new DoubleArraySpliterator(0, -1);
+    }
+
+    /*
+     * Returns a new cursor positioned at the start of the list. Each cursor
+     * has its own position, so any number of them can walk the list at once,
+     * and a cursor can be reset() and reused without allocating.
+     *
+     * @return A cursor over the elements in list order.
+     */
+    public DoubleCursor cursor() {
+        return new ArrayCursor();
+    }
+
+    /*
+     * Resets the internal cursor used by next() back to the beginning (0).
+     */
+    public void reset() {
+        cursor = 0;
+    }
+
+    /*
+     * Returns the element at the current cursor position and then increments
+     * the cursor. If the cursor is at or beyond the end of the list, throws
+     * an Exception with the required message.
+     *
+     * @return The next double in iteration order.
+     * @throws Exception If the end of stored data is reached.
+     */
+    public double next() throws Exception {
+        if (cursor >= size) throw new Exception("End of stored data is reached.");
+        double val = data[cursor];
+        cursor++;
+        return val;
+    }
+
+    /*
+     * Cursor over the list that fails fast if the list is structurally
+     * modified after the cursor was created or last reset.
+     */
+    private class ArrayCursor implements DoubleCursor {
+        private int index;
+        private int expectedModCount;
+
+        ArrayCursor() {
+            reset();
+        }
+
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        public double nextDouble() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (index >= size) throw new NoSuchElementException("End of stored data is reached.");
+            return data[index++];
+        }
+
+        public void reset() {
+            index = 0;
+            expectedModCount = modCount;
+        }
+    }
+
+    /*
+     * Spliterator over data[index..fence-1] that splits at the midpoint.
+     * A fence of -1 means "not bound yet"; it becomes size on first use.
+     */
+    private class DoubleArraySpliterator implements Spliterator.OfDouble {
+        private double[] array;
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        DoubleArraySpliterator(int origin, int fence) {
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        private int fence() {
+            if (fence < 0) {
+                array = data;
+                fence = size;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        public OfDouble trySplit() {
+            int hi = fence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) return null;
+
+            DoubleArraySpliterator prefix = new DoubleArraySpliterator(lo, mid);
+            prefix.array = array;
+            prefix.expectedModCount = expectedModCount;
+            index = mid;
+            return prefix;
+        }
+
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (action == null) throw new NullPointerException();
+            if (index >= fence()) return false;
+            action.accept(array[index++]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        public void forEachRemaining(DoubleConsumer action) {
+            if (action == null) throw new NullPointerException();
+            int hi = fence();
+            double[] a = array;
+            for (int i = index; i < hi; i++) action.accept(a[i]);
+            index = hi;
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return fence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ConcurrentModificationException;
+
+public class DoubleArrayListTest {
+
+    @Test
+    @DisplayName("add/get/remove/toString + growth")
+    void testBasics() {
+        DoubleArrayList list = new DoubleArrayList();
+        for (int i = 0; i < 11; i++) list.add(i / 2.0);
+        assertEquals(20, list.arraySize());
+        assertEquals(2.5, list.get(5));
+        assertEquals(0.0, list.remove(0));
+        assertEquals("0.5 1.0 1.5", list.toString().substring(0, 11));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(10));
+    }
+
+    @Test
+    @DisplayName("bulk addAll/removeRange/toArray")
+    void testBulk() {
+        DoubleArrayList list = new DoubleArrayList();
+        list.addAll(new double[] {1.5, 2.5});
+        list.addAll(1, new double[] {9.0, 3.0}, 1, 1);
+        assertArrayEquals(new double[] {1.5, 3.0, 2.5}, list.toArray(new double[0]));
+        list.removeRange(0, 2);
+        assertEquals("2.5", list.toString());
+    }
+
+    @Test
+    @DisplayName("sort and search follow Double.compare (NaN, -0.0)")
+    void testOrdering() {
+        DoubleArrayList list = new DoubleArrayList();
+        list.addAll(new double[] {Double.NaN, 1.0, 0.0, -0.0, -2.5, Double.NaN});
+        assertEquals(0, list.indexOf(Double.NaN));
+        assertEquals(2, list.countEquals(Double.NaN));
+
+        list.sort();
+        assertTrue(list.isSorted());
+        assertEquals("-2.5 -0.0 0.0 1.0 NaN NaN", list.toString());
+        assertEquals(1, list.binarySearch(-0.0));
+        assertEquals(2, list.binarySearch(0.0));
+        assertEquals(4, list.binarySearch(Double.NaN));
+        assertEquals(2, list.countEquals(Double.NaN));
+        assertEquals(-4, list.binarySearch(0.5));
+        assertEquals(-2.5, list.min());
+        assertTrue(Double.isNaN(list.max()));
+
+        list.add(Double.NaN); // NaN is the largest value, so still sorted
+        assertTrue(list.isSorted());
+        list.add(3.0);
+        assertFalse(list.isSorted());
+    }
+
+    @Test
+    @DisplayName("sum, cursors and streams")
+    void testSumCursorsAndStreams() {
+        DoubleArrayList list = new DoubleArrayList();
+        list.addAll(new double[] {0.5, 0.25, 0.25});
+        assertEquals(1.0, list.sum());
+        assertEquals(1.0, list.doubleStream().sum());
+        assertEquals(1.0, list.parallelDoubleStream().sum());
+
+        DoubleCursor c = list.cursor();
+        assertEquals(0.5, c.nextDouble());
+        list.remove(0);
+        assertThrows(ConcurrentModificationException.class, () -> c.nextDouble());
+        c.reset();
+        assertEquals(0.25, c.nextDouble());
+    }
+}
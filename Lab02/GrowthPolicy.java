@@ -0,0 +1,112 @@
+/*
+ * Decides how an IntArrayList resizes its internal array.
+ * grow() is asked for a bigger capacity when the array is full, and shrink()
+ * is asked after every removal whether the array should get smaller.
+ */
+public interface GrowthPolicy {
+
+    /*
+     * Returns the new capacity to use when the array must hold at least
+     * minCapacity elements.
+     *
+     * @param capacity The current capacity.
+     * @param minCapacity The capacity that is needed right now.
+     * @return The new capacity (always >= minCapacity).
+     */
+    int grow(int capacity, int minCapacity);
+
+    /*
+     * Returns the capacity to use after a removal. Returning the current
+     * capacity means the array is left alone.
+     *
+     * @param capacity The current capacity.
+     * @param size The number of elements stored.
+     * @return The new capacity (always >= size).
+     */
+    int shrink(int capacity, int size);
+
+    /*
+     * Returns the original lab policy: grow by a fixed step and shrink back
+     * to size + step as soon as more than step slots are empty.
+     *
+     * @param step The number of slots added or kept empty.
+     * @return A fixed-step policy.
+     */
+    static GrowthPolicy fixed(int step) {
+        return new Fixed(step);
+    }
+
+    /*
+     * Returns a policy that multiplies the capacity by factor when growing
+     * (amortized O(1) appends) and only shrinks once the list drops below
+     * shrinkThreshold of the capacity, so add/remove at the boundary never
+     * reallocates on every call.
+     *
+     * @param factor The growth multiplier (> 1).
+     * @param minCapacity The smallest capacity the array is ever given.
+     * @param shrinkThreshold The fill ratio below which the array shrinks
+     *        (0 < shrinkThreshold < 1 / factor).
+     * @return A geometric policy.
+     */
+    static GrowthPolicy geometric(double factor, int minCapacity, double shrinkThreshold) {
+        return new Geometric(factor, minCapacity, shrinkThreshold);
+    }
+
+    /*
+     * Fixed-step growth; the behaviour IntArrayList has always had.
+     */
+    class Fixed implements GrowthPolicy {
+        private final int step;
+
+        public Fixed(int step) {
+            if (step < 1) throw new IllegalArgumentException("step must be positive");
+            this.step = step;
+        }
+
+        public int grow(int capacity, int minCapacity) {
+            return Math.max(capacity + step, minCapacity);
+        }
+
+        public int shrink(int capacity, int size) {
+            if (capacity - size > step) return size + step;
+            return capacity;
+        }
+    }
+
+    /*
+     * Geometric growth with a separate, lower shrink threshold (hysteresis).
+     */
+    class Geometric implements GrowthPolicy {
+        private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+        private final double factor;
+        private final int minCapacity;
+        private final double shrinkThreshold;
+
+        public Geometric(double factor, int minCapacity, double shrinkThreshold) {
+            if (factor <= 1.0) throw new IllegalArgumentException("factor must be > 1");
+            if (minCapacity < 1) throw new IllegalArgumentException("minCapacity must be positive");
+            if (shrinkThreshold <= 0 || shrinkThreshold >= 1.0 / factor) {
+                throw new IllegalArgumentException("shrinkThreshold must be in (0, 1/factor)");
+            }
+            this.factor = factor;
+            this.minCapacity = minCapacity;
+            this.shrinkThreshold = shrinkThreshold;
+        }
+
+        public int grow(int capacity, int minCapacity) {
+            long target = Math.max((long) (capacity * factor), capacity + 1L);
+            target = Math.max(target, Math.max(minCapacity, this.minCapacity));
+            if (target > MAX_CAPACITY) {
+                if (minCapacity > MAX_CAPACITY) throw new OutOfMemoryError("Required array size too large");
+                target = MAX_CAPACITY;
+            }
+            return (int) target;
+        }
+
+        public int shrink(int capacity, int size) {
+            if (capacity <= minCapacity || size >= capacity * shrinkThreshold) return capacity;
+            return (int) Math.max(minCapacity, Math.min(capacity, (long) (size * factor)));
+        }
+    }
+}
@@ -1,36 +1,127 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
 public class IntArrayList {
     private int[] data;
     private int size;
     private int cursor;
+    private final int initialCapacity;
+    private final GrowthPolicy policy;
+    private final IntArrayPool pool; // where backing arrays come from; null to allocate directly
+    private boolean sorted;
+    private int modCount; // bumped by every structural change; checked by cursors
+    private boolean shared; // data is also referenced by a snapshot
+    private int sharedSize; // largest size handed out to a snapshot of data
+    private boolean gapMode;
+    private int gapStart;   // index where the free space sits in gap mode; -1 when it is at the end
+    private IntHashIndex hashIndex; // value -> first/last index; null unless setHashIndex(true)
+    private boolean hashIndexStale; // rebuild before the next lookup
+
+    private static final int[] EMPTY = new int[0];
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+    private static final int FILE_MAGIC = 0x314C4149; // "IAL1" in little-endian
+    private static final int FILE_HEADER = 12;        // magic, size, flags
+    private static final int FLAG_SORTED = 1;
+    private static final long MAP_WINDOW = 1L << 30;  // bytes mapped at a time by writeTo/mapFrom
+    private static final int TEXT_BATCH = 8192;   // chars per write for writeTo(Appendable)
+    private static final int MAX_INT_CHARS = 12;  // "-2147483648" plus the separator
+    private static final int PARSE_BLOCK = 1 << 16;   // bytes per read for parse()
+    private static final char[] DIGIT_PAIRS = new char[200]; // "00", "01", .. "99"
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (char) ('0' + i % 10);
+        }
+    }
 
     /*
      * Creates an empty IntArrayList with an internal array capacity of 10.
+     * The array grows by 10 when full and shrinks when more than 10 slots are empty.
      */
     public IntArrayList() {
-        data = new int[10];
+        this(10, GrowthPolicy.fixed(10));
+    }
+
+    /*
+     * Creates an empty IntArrayList with a capacity of 10 that resizes
+     * according to the given policy.
+     *
+     * @param policy The growth/shrink policy to use.
+     */
+    public IntArrayList(GrowthPolicy policy) {
+        this(10, policy);
+    }
+
+    /*
+     * Creates an empty IntArrayList with the given capacity that resizes
+     * according to the given policy.
+     *
+     * @param initialCapacity The starting capacity (also used by clear()).
+     * @param policy The growth/shrink policy to use.
+     */
+    public IntArrayList(int initialCapacity, GrowthPolicy policy) {
+        this(initialCapacity, policy, null);
+    }
+
+    /*
+     * Creates an empty IntArrayList that borrows its backing arrays from pool
+     * and gives them back whenever it resizes, clears or is released, so the
+     * array capacity is always one of the pool's size classes.
+     *
+     * @param initialCapacity The starting capacity (also used by clear()).
+     * @param policy The growth/shrink policy to use.
+     * @param pool The pool to borrow arrays from, or null to allocate them.
+     */
+    public IntArrayList(int initialCapacity, GrowthPolicy policy, IntArrayPool pool) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must not be negative");
+        if (policy == null) throw new NullPointerException("policy");
+        this.initialCapacity = initialCapacity;
+        this.policy = policy;
+        this.pool = pool;
+        data = newArray(initialCapacity);
         size = 0;
         cursor = 0;
+        sorted = true;
+        gapStart = -1;
     }
 
     /*
      * Appends an integer to the end of the list.
-     * Grows the internal array by 10 when the array becomes full.
+     * Grows the internal array (see GrowthPolicy) when the array becomes full.
      *
      * @param e The integer to append.
      */
     public void add(int e) {
-        if (size == data.length) {
-            int[] bigger = new int[data.length + 10];
-            for (int i = 0; i < size; i++) bigger[i] = data[i];
-            data = bigger;
-        }
+        closeGap();
+        if (size == data.length) ensureCapacity(size + 1);
+        if (size > 0 && e < data[size - 1]) sorted = false;
+        beforeWrite(size);
         data[size] = e;
+        if (hashIndex != null && !hashIndexStale) hashIndex.append(e, size);
         size++;
+        modCount++;
     }
 
     /*
      * Inserts an integer at the specified index, shifting elements to the right.
-     * Grows the internal array by 10 when the array becomes full.
+     * Grows the internal array (see GrowthPolicy) when the array becomes full.
+     * In gap-buffer mode only the elements between the last edit and index move.
      *
      * @param index The position to insert at (0..size).
      * @param e The integer to insert.
@@ -38,15 +129,80 @@ public class IntArrayList {
     public void add(int index, int e) {
         if (index < 0 || index > size) throw new IndexOutOfBoundsException();
 
-        if (size == data.length) {
-            int[] bigger = new int[data.length + 10];
-            for (int i = 0; i < size; i++) bigger[i] = data[i];
-            data = bigger;
-        }
+        if (size == data.length) ensureCapacity(size + 1);
+        if ((index > 0 && get(index - 1) > e) || (index < size && e > get(index))) sorted = false;
 
-        for (int i = size; i > index; i--) data[i] = data[i - 1];
-        data[index] = e;
+        if (gapMode) {
+            moveGap(index);
+            beforeWrite(index); // moveGap only guards the slots it shifts
+            data[index] = e;
+            if (gapStart >= 0) gapStart = index + 1;
+        } else {
+            beforeWrite(index);
+            System.arraycopy(data, index, data, index + 1, size - index);
+            data[index] = e;
+        }
+        if (hashIndex != null && !hashIndexStale) {
+            if (index == size) hashIndex.append(e, index);
+            else hashIndexStale = true;
+        }
         size++;
+        modCount++;
+    }
+
+    /*
+     * Appends every integer in src to the end of the list.
+     *
+     * @param src The integers to append.
+     */
+    public void addAll(int[] src) {
+        addAll(size, src, 0, src.length);
+    }
+
+    /*
+     * Appends every integer stored in other to the end of the list.
+     * Passing this list appends a copy of its own contents.
+     *
+     * @param other The list whose elements are appended.
+     */
+    public void addAll(IntArrayList other) {
+        other.closeGap();
+        // growing hands the old array back to the pool, so a list appended
+        // to itself grows first and is copied out of its new array
+        if (other == this) ensureCapacity(size + size);
+        addAll(size, other.data, 0, other.size);
+    }
+
+    /*
+     * Inserts src[off..off+len-1] at the specified index, shifting the
+     * existing elements right. Uses one capacity check and one array copy
+     * for the tail, no matter how many values are inserted.
+     *
+     * @param index The position to insert at (0..size).
+     * @param src The array holding the integers to insert.
+     * @param off The first position in src to copy from.
+     * @param len The number of integers to insert.
+     */
+    public void addAll(int index, int[] src, int off, int len) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        if (off < 0 || len < 0 || off > src.length - len) throw new IndexOutOfBoundsException();
+        if (len == 0) return;
+        closeGap();
+        if (sorted) sorted = staysSorted(index, src, off, len);
+
+        ensureCapacity(size + len);
+        beforeWrite(index);
+        System.arraycopy(data, index, data, index + len, size - index);
+        System.arraycopy(src, off, data, index, len);
+        if (hashIndex != null && !hashIndexStale) {
+            if (index == size) {
+                for (int i = 0; i < len; i++) hashIndex.append(data[index + i], index + i);
+            } else {
+                hashIndexStale = true;
+            }
+        }
+        size += len;
+        modCount++;
     }
 
     /*
@@ -57,16 +213,23 @@ public class IntArrayList {
      */
     public int get(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        if (gapStart >= 0 && index >= gapStart) return data[index + data.length - size];
         return data[index];
     }
 
     /*
-     * Clears the list back to its initial state (size 0, capacity 10, cursor 0).
+     * Clears the list back to its initial state (size 0, initial capacity, cursor 0).
      */
     public void clear() {
-        data = new int[10];
+        recycle(data);
+        data = newArray(initialCapacity);
         size = 0;
         cursor = 0;
+        sorted = true;
+        shared = false;
+        gapStart = -1;
+        hashIndexStale = true;
+        modCount++;
     }
 
     /*
@@ -80,8 +243,9 @@ public class IntArrayList {
 
     /*
      * Removes and returns the element at the specified index, shifting elements left.
-     * Shrinks the internal array when empty slots become greater than 10, keeping
-     * exactly 10 empty slots (capacity becomes size + 10).
+     * Shrinks the internal array when the GrowthPolicy says so (by default when
+     * empty slots become greater than 10, keeping exactly 10 empty slots).
+     * In gap-buffer mode only the elements between the last edit and index move.
      *
      * @param index The position to remove (0..size-1).
      * @return The removed integer value.
@@ -89,21 +253,74 @@ public class IntArrayList {
     public int remove(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
-        int removed = data[index];
-
-        for (int i = index; i < size - 1; i++) data[i] = data[i + 1];
+        int removed;
+        if (gapMode) {
+            moveGap(index);
+            removed = data[index + data.length - size]; // first element after the gap joins it
+        } else {
+            removed = data[index];
+            if (index < size - 1) beforeWrite(index);
+            System.arraycopy(data, index + 1, data, index, size - index - 1);
+        }
         size--;
-
-        if (emptyCount() > 10) {
-            int[] smaller = new int[size + 10];
-            for (int i = 0; i < size; i++) smaller[i] = data[i];
-            data = smaller;
+        if (hashIndex != null && !hashIndexStale) {
+            if (index == size) hashIndex.removeLast(removed, index);
+            else hashIndexStale = true;
         }
+        modCount++;
+
+        int shrunk = policy.shrink(data.length, size);
+        if (shrunk < data.length) resize(shrunk);
 
         if (cursor > size) cursor = size;
         return removed;
     }
 
+    /*
+     * Removes the elements from index from (inclusive) to index to (exclusive),
+     * shifting the remaining elements left in a single copy. The internal array
+     * is shrunk at most once afterwards.
+     *
+     * @param from The first position to remove (0..size).
+     * @param to The position after the last one removed (from..size).
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size || from > to) throw new IndexOutOfBoundsException();
+        if (from == to) return;
+
+        closeGap();
+        if (hashIndex != null && !hashIndexStale) {
+            if (to == size) {
+                for (int i = to - 1; i >= from; i--) hashIndex.removeLast(data[i], i);
+            } else {
+                hashIndexStale = true;
+            }
+        }
+        if (to < size) beforeWrite(from);
+        System.arraycopy(data, to, data, from, size - to);
+        size -= to - from;
+        modCount++;
+
+        int shrunk = policy.shrink(data.length, size);
+        if (shrunk < data.length) resize(shrunk);
+
+        if (cursor > size) cursor = size;
+    }
+
+    /*
+     * Copies the stored integers into dst if it is large enough, otherwise
+     * into a new array of exactly size() elements.
+     *
+     * @param dst The array to fill, if it has room.
+     * @return The array holding the integers (dst or a new array).
+     */
+    public int[] toArray(int[] dst) {
+        if (dst.length < size) dst = new int[size];
+        closeGap();
+        System.arraycopy(data, 0, dst, 0, size);
+        return dst;
+    }
+
     /*
      * Returns the number of elements currently stored in the list.
      *
@@ -122,6 +339,209 @@ public class IntArrayList {
         return data.length;
     }
 
+    /*
+     * Makes sure the internal array can hold at least minCapacity elements
+     * without another resize. The new capacity comes from the GrowthPolicy.
+     *
+     * @param minCapacity The number of elements the list must be able to hold.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) resize(policy.grow(data.length, minCapacity));
+    }
+
+    /*
+     * Shrinks the internal array so its capacity equals the current size.
+     */
+    public void trimToSize() {
+        if (data.length > size) resize(size);
+    }
+
+    /*
+     * Returns the first index whose element is >= e (size if there is none).
+     * Only meaningful while the list is sorted.
+     */
+    private int lowerBound(int e) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (data[mid] < e) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /*
+     * Checks whether inserting src[off..off+len-1] at index keeps a sorted
+     * list sorted.
+     */
+    private boolean staysSorted(int index, int[] src, int off, int len) {
+        if (index > 0 && data[index - 1] > src[off]) return false;
+        if (index < size && src[off + len - 1] > data[index]) return false;
+        for (int i = off + 1; i < off + len; i++) {
+            if (src[i - 1] > src[i]) return false;
+        }
+        return true;
+    }
+
+    private void insertionSort() {
+        for (int i = 1; i < size; i++) {
+            int v = data[i];
+            int j = i - 1;
+            while (j >= 0 && data[j] > v) {
+                data[j + 1] = data[j];
+                j--;
+            }
+            data[j + 1] = v;
+        }
+    }
+
+    /*
+     * LSD radix sort over the four bytes of each int. The sign bit is
+     * flipped on the top byte so negative numbers come first.
+     */
+    private void radixSort() {
+        int[] src = data;
+        int[] dst = newArray(data.length);
+        int[] count = new int[256];
+
+        for (int shift = 0; shift < 32; shift += 8) {
+            int flip = (shift == 24) ? 0x80 : 0;
+            Arrays.fill(count, 0);
+            for (int i = 0; i < size; i++) count[((src[i] >>> shift) & 0xFF) ^ flip]++;
+            if (count[((src[0] >>> shift) & 0xFF) ^ flip] == size) continue; // all the same byte
+
+            int sum = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < size; i++) dst[count[((src[i] >>> shift) & 0xFF) ^ flip]++] = src[i];
+
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        data = src;
+        recycle(dst);
+    }
+
+    /*
+     * Copies the stored elements into a new array of the given capacity.
+     *
+     * @param capacity The new array length (>= size).
+     */
+    private void resize(int capacity) {
+        if (pool != null && gapStart < 0 && pool.lengthFor(capacity) == data.length) return;
+
+        int[] copy = newArray(capacity);
+        if (gapStart < 0) {
+            System.arraycopy(data, 0, copy, 0, size);
+        } else {
+            System.arraycopy(data, 0, copy, 0, gapStart);
+            System.arraycopy(data, gapStart + data.length - size, copy, gapStart, size - gapStart);
+            gapStart = -1;
+        }
+        recycle(data);
+        data = copy;
+        shared = false;
+    }
+
+    /*
+     * Returns a new backing array of at least length ints, from the pool if
+     * this list has one.
+     */
+    private int[] newArray(int length) {
+        return pool == null ? new int[length] : pool.borrow(length);
+    }
+
+    /*
+     * Hands a backing array that this list is done with back to the pool.
+     * An array a snapshot may still be reading is never given back.
+     */
+    private void recycle(int[] array) {
+        if (pool != null && !shared) pool.release(array);
+    }
+
+    /*
+     * Empties the list and returns its backing array to the pool, leaving a
+     * zero-capacity array in its place. The list can still be used; the next
+     * add borrows a new array. Call this when a pooled list is no longer
+     * needed. Without a pool this is the same as clear().
+     */
+    public void release() {
+        clear();
+        if (pool == null) return;
+        recycle(data);
+        data = EMPTY;
+    }
+
+    /*
+     * Turns gap-buffer mode on or off. In gap-buffer mode the free space of
+     * the internal array is kept at the last insert/remove position instead
+     * of at the end, so a run of add(index, e)/remove(index) calls near the
+     * same index costs O(1) each instead of shifting the whole tail. Any
+     * other operation first moves the gap back to the end.
+     *
+     * @param on true to keep the gap at the edit point; false for normal mode.
+     */
+    public void setGapBuffer(boolean on) {
+        gapMode = on;
+        if (!on) closeGap();
+    }
+
+    /*
+     * Returns whether gap-buffer mode is on.
+     *
+     * @return true in gap-buffer mode; false otherwise.
+     */
+    public boolean isGapBuffer() {
+        return gapMode;
+    }
+
+    /*
+     * Moves the free space of the internal array so it starts at index,
+     * shifting only the elements between the old and new gap position.
+     *
+     * @param index The logical position the gap should start at (0..size).
+     */
+    private void moveGap(int index) {
+        int start = (gapStart < 0) ? size : gapStart;
+        if (index != start) {
+            beforeWrite(Math.min(index, start));
+            int gap = data.length - size;
+            if (index < start) System.arraycopy(data, index, data, index + gap, start - index);
+            else System.arraycopy(data, start + gap, data, start, index - start);
+        }
+        gapStart = (index == size) ? -1 : index;
+    }
+
+    /*
+     * Moves the gap back to the end, so data[0..size-1] holds the elements
+     * in order. Does nothing outside gap-buffer mode.
+     */
+    private void closeGap() {
+        if (gapStart >= 0) moveGap(size);
+    }
+
+    /*
+     * Copy-on-write: called before data[from..] is overwritten in place.
+     * If a snapshot can still see any of those slots, the list switches to
+     * a private copy of the array first; otherwise nothing is copied (so
+     * appends past every snapshot stay free).
+     *
+     * @param from The lowest index about to be written.
+     */
+    private void beforeWrite(int from) {
+        if (shared && from < sharedSize) {
+            int[] copy = newArray(data.length);
+            System.arraycopy(data, 0, copy, 0, data.length);
+            data = copy;
+            shared = false;
+        }
+    }
+
     /*
      * Returns the number of unused (empty) slots in the internal array.
      *
@@ -138,6 +558,7 @@ public class IntArrayList {
      * @return A space-separated string of the stored integers.
      */
     public String toString() {
+        closeGap();
         if (size == 0) return "";
 
         StringBuilder sb = new StringBuilder();
@@ -146,6 +567,563 @@ public class IntArrayList {
         return sb.toString();
     }
 
+    /*
+     * Writes the same text as toString() to out, in batches of 8192 chars.
+     * Memory use stays bounded no matter how long the list is.
+     *
+     * @param out Where to write the text (a Writer, StringBuilder, PrintStream, ...).
+     * @throws IOException If out throws while appending.
+     */
+    public void writeTo(Appendable out) throws IOException {
+        writeText(out, TEXT_BATCH);
+    }
+
+    /*
+     * Writes the same text as toString() to out. Numbers are encoded straight
+     * into one reusable char buffer, which is handed to out.write() each time
+     * it fills, so no String is created per element. The writer is not
+     * flushed or closed.
+     *
+     * @param out The writer to write the text to.
+     * @param batchSize The size of the char buffer (at least 12 is used).
+     * @throws IOException If the writer throws.
+     */
+    public void writeTo(Writer out, int batchSize) throws IOException {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+        writeText(out, batchSize);
+    }
+
+    /*
+     * Shared body of the two text writeTo() methods.
+     */
+    private void writeText(Appendable out, int batchSize) throws IOException {
+        closeGap();
+        char[] buf = new char[Math.max(batchSize, MAX_INT_CHARS)];
+        Writer writer = (out instanceof Writer) ? (Writer) out : null;
+        CharBuffer view = (writer == null) ? CharBuffer.wrap(buf) : null;
+
+        int pos = 0;
+        for (int i = 0; i < size; i++) {
+            if (pos > buf.length - MAX_INT_CHARS) {
+                if (writer != null) writer.write(buf, 0, pos);
+                else out.append(view, 0, pos);
+                pos = 0;
+            }
+            if (i > 0) buf[pos++] = ' ';
+            pos = putInt(buf, pos, data[i]);
+        }
+        if (pos > 0) {
+            if (writer != null) writer.write(buf, 0, pos);
+            else out.append(view, 0, pos);
+        }
+    }
+
+    /*
+     * Writes the decimal digits of v into buf starting at pos, two digits at
+     * a time, and returns the position just past them. Works on the negative
+     * value so Integer.MIN_VALUE needs no special case.
+     */
+    private static int putInt(char[] buf, int pos, int v) {
+        int end = pos + decimalLength(v);
+        if (v < 0) buf[pos] = '-';
+        else v = -v;
+
+        int i = end;
+        while (v <= -100) {
+            int q = v / 100;
+            int r = (q * 100 - v) * 2;
+            v = q;
+            buf[--i] = DIGIT_PAIRS[r + 1];
+            buf[--i] = DIGIT_PAIRS[r];
+        }
+        int r = -v * 2;
+        buf[--i] = DIGIT_PAIRS[r + 1];
+        if (v <= -10) buf[--i] = DIGIT_PAIRS[r];
+        return end;
+    }
+
+    /*
+     * Returns the number of chars Integer.toString(v) would produce.
+     */
+    private static int decimalLength(int v) {
+        int sign = v < 0 ? 1 : 0;
+        int x = v < 0 ? v : -v;
+        int p = -10;
+        for (int d = 1; d < 10; d++) {
+            if (x > p) return d + sign;
+            p *= 10;
+        }
+        return 10 + sign;
+    }
+
+    /*
+     * Checks whether the list contains the given integer. Uses the hash
+     * index if there is one, or binary search when the list is known to
+     * be sorted.
+     *
+     * @param e The integer to look for.
+     * @return true if e is stored in the list; false otherwise.
+     */
+    public boolean contains(int e) {
+        return indexOf(e) >= 0;
+    }
+
+    /*
+     * Returns the index of the first occurrence of the given integer.
+     * Uses the hash index if there is one (expected O(1)), or the O(log n)
+     * binary search path when the list is known to be sorted.
+     *
+     * @param e The integer to look for.
+     * @return The first index holding e, or -1 if it is not in the list.
+     */
+    public int indexOf(int e) {
+        if (hashIndex != null) return hashIndex().first(e);
+        closeGap();
+        if (sorted) {
+            int i = lowerBound(e);
+            return (i < size && data[i] == e) ? i : -1;
+        }
+        return IntKernels.indexOf(data, size, e);
+    }
+
+    /*
+     * Returns the index of the last occurrence of the given integer.
+     * Uses the hash index if there is one, then binary search if the list is
+     * known to be sorted, and a backwards scan otherwise.
+     *
+     * @param e The integer to look for.
+     * @return The last index holding e, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(int e) {
+        if (hashIndex != null) return hashIndex().last(e);
+        closeGap();
+        if (sorted) {
+            if (e == Integer.MAX_VALUE) return (size > 0 && data[size - 1] == e) ? size - 1 : -1;
+            int i = lowerBound(e + 1) - 1;
+            return (i >= 0 && data[i] == e) ? i : -1;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (data[i] == e) return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Turns the hash side-index on or off. With it on, contains(), indexOf()
+     * and lastIndexOf() are expected O(1). Appends and removals at the end
+     * (remove(size() - 1), removeRange(from, size())) keep the index up to
+     * date in O(1) per element. Inserting or removing anywhere else shifts
+     * later indices, so it marks the index stale and it is rebuilt (once, in
+     * O(n)) on the next lookup. Costs about 24 bytes per distinct value plus
+     * 4 bytes per element.
+     *
+     * @param on true to build and maintain the index; false to drop it.
+     */
+    public void setHashIndex(boolean on) {
+        if (!on) {
+            hashIndex = null;
+        } else if (hashIndex == null) {
+            hashIndex = new IntHashIndex(size);
+            hashIndexStale = true;
+        }
+    }
+
+    /*
+     * Returns whether the hash side-index is on.
+     *
+     * @return true if lookups use the hash index; false otherwise.
+     */
+    public boolean hasHashIndex() {
+        return hashIndex != null;
+    }
+
+    /*
+     * Returns the hash index, rebuilding it first if it is stale.
+     */
+    private IntHashIndex hashIndex() {
+        if (hashIndexStale) {
+            closeGap();
+            hashIndex.rebuild(data, size);
+            hashIndexStale = false;
+        }
+        return hashIndex;
+    }
+
+    /*
+     * Returns the sum of all stored integers (0 for an empty list).
+     * Loops over the backing array directly, with the Vector API when it is
+     * available (see IntKernels).
+     *
+     * @return The sum, computed without int overflow.
+     */
+    public long sum() {
+        closeGap();
+        return IntKernels.sum(data, size);
+    }
+
+    /*
+     * Returns the smallest stored integer.
+     *
+     * @return The minimum element.
+     * @throws NoSuchElementException If the list is empty.
+     */
+    public int min() {
+        closeGap();
+        if (size == 0) throw new NoSuchElementException("List is empty.");
+        if (sorted) return data[0];
+        return IntKernels.min(data, size);
+    }
+
+    /*
+     * Returns the largest stored integer.
+     *
+     * @return The maximum element.
+     * @throws NoSuchElementException If the list is empty.
+     */
+    public int max() {
+        closeGap();
+        if (size == 0) throw new NoSuchElementException("List is empty.");
+        if (sorted) return data[size - 1];
+        return IntKernels.max(data, size);
+    }
+
+    /*
+     * Counts how many stored integers are equal to e. Uses binary search
+     * on both ends of the run when the list is sorted.
+     *
+     * @param e The integer to count.
+     * @return The number of occurrences of e.
+     */
+    public int countEquals(int e) {
+        closeGap();
+        if (sorted) {
+            int first = lowerBound(e);
+            if (e == Integer.MAX_VALUE) return size - first;
+            return lowerBound(e + 1) - first;
+        }
+        return IntKernels.countEquals(data, size, e);
+    }
+
+    /*
+     * Searches the sorted list for the given integer.
+     *
+     * @param e The integer to look for.
+     * @return The first index holding e, or (-(insertion point) - 1) if it
+     *         is not in the list, as in Arrays.binarySearch.
+     * @throws IllegalStateException If the list is not known to be sorted.
+     */
+    public int binarySearch(int e) {
+        closeGap();
+        if (!sorted) throw new IllegalStateException("List is not sorted.");
+        int i = lowerBound(e);
+        return (i < size && data[i] == e) ? i : -(i + 1);
+    }
+
+    /*
+     * Returns whether the elements are known to be in ascending order.
+     * The flag is set by sort()/parallelSort() (and for an empty list) and
+     * is kept up to date by every add; removals never clear it.
+     *
+     * @return true if the list is sorted; false otherwise.
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /*
+     * Sorts the list into ascending order in place. Small lists use
+     * insertion sort; larger ones use an LSD radix sort (one byte per pass,
+     * passes where every element has the same byte are skipped).
+     */
+    public void sort() {
+        closeGap();
+        if (!sorted) {
+            beforeWrite(0);
+            if (size <= INSERTION_SORT_THRESHOLD) insertionSort();
+            else radixSort();
+            hashIndexStale = true;
+        }
+        sorted = true;
+        modCount++;
+    }
+
+    /*
+     * Sorts the list into ascending order using all available cores.
+     */
+    public void parallelSort() {
+        closeGap();
+        if (!sorted) {
+            beforeWrite(0);
+            Arrays.parallelSort(data, 0, size);
+            hashIndexStale = true;
+        }
+        sorted = true;
+        modCount++;
+    }
+
+    /*
+     * Saves the list to a file in a compact little-endian binary layout:
+     * a 12-byte header (magic, size, flags) followed by size 4-byte ints.
+     * The ints are written with one bulk copy per 1 GB mapping of the file
+     * (a single mapping cannot be larger than 2 GB).
+     *
+     * @param file The file to create or overwrite.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        writeTo(file, MAP_WINDOW);
+    }
+
+    /*
+     * writeTo(Path) mapping at most window bytes (a multiple of 4) at a
+     * time. Package-private so tests can cross windows with a small list.
+     */
+    void writeTo(Path file, long window) throws IOException {
+        closeGap();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer head = ch.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER);
+            head.order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(FILE_MAGIC).putInt(size).putInt(sorted ? FLAG_SORTED : 0);
+            head.force();
+
+            for (int done = 0; done < size; ) {
+                int n = (int) Math.min(size - done, window / 4);
+                MappedByteBuffer part = ch.map(FileChannel.MapMode.READ_WRITE, FILE_HEADER + 4L * done, 4L * n);
+                part.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(data, done, n);
+                part.force();
+                done += n;
+            }
+        }
+    }
+
+    /*
+     * Loads a list saved by writeTo(Path). The file is memory-mapped 1 GB at
+     * a time and copied into the backing array with one bulk read per mapping.
+     *
+     * @param file The file to read.
+     * @return A new IntArrayList with the default growth policy.
+     * @throws IOException If the file cannot be read or is not in the expected format.
+     */
+    public static IntArrayList mapFrom(Path file) throws IOException {
+        return mapFrom(file, GrowthPolicy.fixed(10));
+    }
+
+    /*
+     * Loads a list saved by writeTo(Path) into a list using the given policy.
+     *
+     * @param file The file to read.
+     * @param policy The growth/shrink policy for the new list.
+     * @return A new IntArrayList holding the saved integers.
+     * @throws IOException If the file cannot be read or is not in the expected format.
+     */
+    public static IntArrayList mapFrom(Path file, GrowthPolicy policy) throws IOException {
+        return mapFrom(file, policy, MAP_WINDOW);
+    }
+
+    /*
+     * mapFrom(Path, GrowthPolicy) mapping at most window bytes (a multiple
+     * of 4) at a time. Package-private so tests can cross windows.
+     */
+    static IntArrayList mapFrom(Path file, GrowthPolicy policy, long window) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = ch.size();
+            if (length < FILE_HEADER) throw new IOException("Not an IntArrayList file: " + file);
+
+            MappedByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER);
+            head.order(ByteOrder.LITTLE_ENDIAN);
+            int magic = head.getInt();
+            int n = head.getInt();
+            int flags = head.getInt();
+            if (magic != FILE_MAGIC || n < 0 || length != FILE_HEADER + 4L * n) {
+                throw new IOException("Not an IntArrayList file: " + file);
+            }
+
+            IntArrayList list = new IntArrayList(policy); // clear() goes back to 10, not n
+            list.ensureCapacity(n);
+            for (int done = 0; done < n; ) {
+                int len = (int) Math.min(n - done, window / 4);
+                MappedByteBuffer part = ch.map(FileChannel.MapMode.READ_ONLY, FILE_HEADER + 4L * done, 4L * len);
+                part.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(list.data, done, len);
+                done += len;
+            }
+            list.size = n;
+            list.sorted = (flags & FLAG_SORTED) != 0;
+            return list;
+        }
+    }
+
+    /*
+     * Reads whitespace-separated integers from a text file, e.g. one written
+     * by writeTo(Writer, int). The capacity is sized up front from the file
+     * length and the density of numbers in the first block.
+     *
+     * @param file The text file to read.
+     * @return A new IntArrayList with the default growth policy.
+     * @throws IOException If the file cannot be read.
+     * @throws NumberFormatException If the file holds something other than
+     *         integers in int range.
+     */
+    public static IntArrayList parse(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return parse(in, Files.size(file));
+        }
+    }
+
+    /*
+     * Reads whitespace-separated integers from a stream until it ends. The
+     * stream is read in 64 KB blocks and digits are accumulated straight from
+     * the bytes, so no String is created per number. The stream is not closed.
+     *
+     * @param in The stream of ASCII text to read.
+     * @return A new IntArrayList with the default growth policy.
+     * @throws IOException If the stream cannot be read.
+     * @throws NumberFormatException If the text holds something other than
+     *         integers in int range.
+     */
+    public static IntArrayList parse(InputStream in) throws IOException {
+        return parse(in, -1);
+    }
+
+    /*
+     * Shared body of parse(); length is the total byte count if known, else -1.
+     * A number that is cut in two by a block boundary simply carries its
+     * partial value over to the next block.
+     */
+    private static IntArrayList parse(InputStream in, long length) throws IOException {
+        IntArrayList list = new IntArrayList();
+        byte[] buf = new byte[PARSE_BLOCK];
+        int[] data = list.data;
+        int size = 0;
+        boolean sorted = true;
+
+        long consumed = 0;
+        long value = 0;         // magnitude of the number being read
+        boolean negative = false;
+        boolean inNumber = false;
+        boolean hasDigits = false;
+        boolean presized = length < 0;
+
+        for (int n; (n = in.read(buf, 0, buf.length)) != -1; ) {
+            for (int i = 0; i < n; i++) {
+                int b = buf[i];
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    if (value > 0x80000000L) throw badNumber(consumed + i);
+                    inNumber = true;
+                    hasDigits = true;
+                } else if (b <= ' ' && b >= 0) {
+                    if (!inNumber) continue;
+                    if (!hasDigits || (!negative && value > Integer.MAX_VALUE)) throw badNumber(consumed + i);
+                    int v = negative ? (int) -value : (int) value;
+                    if (size == data.length) {
+                        list.size = size;
+                        list.resize(Math.max(size + 10, size * 2));
+                        data = list.data;
+                    }
+                    if (size > 0 && v < data[size - 1]) sorted = false;
+                    data[size++] = v;
+                    value = 0;
+                    negative = false;
+                    inNumber = false;
+                    hasDigits = false;
+                } else if (b == '-' && !inNumber) {
+                    negative = true;
+                    inNumber = true;
+                } else {
+                    throw badNumber(consumed + i);
+                }
+            }
+            consumed += n;
+
+            if (!presized && size > 0) {
+                // bytes per number so far predicts how many numbers the file holds
+                long expected = (long) ((double) size / consumed * length * 1.05) + 16;
+                list.size = size;
+                list.ensureCapacity((int) Math.min(expected, Integer.MAX_VALUE - 8));
+                data = list.data;
+                presized = true;
+            }
+        }
+
+        if (inNumber) {
+            if (!hasDigits || (!negative && value > Integer.MAX_VALUE)) throw badNumber(consumed);
+            int v = negative ? (int) -value : (int) value;
+            if (size == data.length) {
+                list.size = size;
+                list.resize(size + 1);
+                data = list.data;
+            }
+            if (size > 0 && v < data[size - 1]) sorted = false;
+            data[size++] = v;
+        }
+
+        list.size = size;
+        list.sorted = sorted;
+        if (list.data.length - size > size / 8 + 10) list.resize(size + 10);
+        return list;
+    }
+
+    private static NumberFormatException badNumber(long offset) {
+        return new NumberFormatException("Not an integer at byte " + offset);
+    }
+
+    /*
+     * Returns an immutable view of the list as it is right now, in O(1).
+     * The view shares the backing array with the list; the list copies the
+     * array only when it next overwrites a slot the view can see, so a
+     * snapshot costs nothing if the list is only appended to afterwards.
+     *
+     * @return A read-only snapshot of the current elements.
+     */
+    public IntArraySnapshot snapshot() {
+        closeGap();
+        if (!shared) sharedSize = 0;
+        shared = true;
+        sharedSize = Math.max(sharedSize, size);
+        return new IntArraySnapshot(data, size, sorted);
+    }
+
+    /*
+     * Returns a sequential IntStream over the stored integers (no boxing).
+     *
+     * @return A stream of the elements in list order.
+     */
+    public IntStream intStream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /*
+     * Returns a parallel IntStream over the stored integers. The backing
+     * array is split into even halves, so work spreads across all cores.
+     *
+     * @return A parallel stream of the elements in list order.
+     */
+    public IntStream parallelIntStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    /*
+     * Returns a Spliterator.OfInt over the stored integers. It binds to the
+     * backing array when traversal starts, not when it is created.
+     *
+     * @return A spliterator over the elements in list order.
+     */
+    public Spliterator.OfInt spliterator() {
+        return new IntArraySpliterator(0, -1);
+    }
+
+    /*
+     * Returns a new cursor positioned at the start of the list. Each cursor
+     * has its own position, so any number of them can walk the list at once,
+     * and a cursor can be reset() and reused without allocating.
+     *
+     * @return A cursor over the elements in list order.
+     */
+    public IntCursor cursor() {
+        return new ArrayCursor();
+    }
+
     /*
      * Resets the internal cursor used by next() back to the beginning (0).
      */
@@ -162,9 +1140,103 @@ public class IntArrayList {
      * @throws Exception If the end of stored data is reached.
      */
     public int next() throws Exception {
+        closeGap();
         if (cursor >= size) throw new Exception("End of stored data is reached.");
         int val = data[cursor];
         cursor++;
         return val;
     }
-}
\ No newline at end of file
+
+    /*
+     * Cursor over the list that fails fast if the list is structurally
+     * modified after the cursor was created or last reset.
+     */
+    private class ArrayCursor implements IntCursor {
+        private int index;
+        private int expectedModCount;
+
+        ArrayCursor() {
+            reset();
+        }
+
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        public int nextInt() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (index >= size) throw new NoSuchElementException("End of stored data is reached.");
+            closeGap();
+            return data[index++];
+        }
+
+        public void reset() {
+            index = 0;
+            expectedModCount = modCount;
+        }
+    }
+
+    /*
+     * Spliterator over data[index..fence-1] that splits at the midpoint.
+     * A fence of -1 means "not bound yet"; it becomes size on first use.
+     */
+    private class IntArraySpliterator implements Spliterator.OfInt {
+        private int[] array;
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        IntArraySpliterator(int origin, int fence) {
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        private int fence() {
+            if (fence < 0) {
+                closeGap();
+                array = data;
+                fence = size;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        public OfInt trySplit() {
+            int hi = fence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) return null;
+
+            IntArraySpliterator prefix = new IntArraySpliterator(lo, mid);
+            prefix.array = array;
+            prefix.expectedModCount = expectedModCount;
+            index = mid;
+            return prefix;
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null) throw new NullPointerException();
+            if (index >= fence()) return false;
+            action.accept(array[index++]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null) throw new NullPointerException();
+            int hi = fence();
+            int[] a = array;
+            for (int i = index; i < hi; i++) action.accept(a[i]);
+            index = hi;
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return fence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Rough timing of the IntArrayList aggregate methods against the plain
+ * get(i) loop they replace and against the scalar kernels in IntKernels.
+ * Run main() and compare the columns. To time the Vector API kernels,
+ * compile simd/IntVectorKernels.java (see that file) and run with
+ * --add-modules jdk.incubator.vector; the first line says which is in use.
+ *
+ * @author Ali Kablanbek
+ * @version 10.18.2026
+ */
+public class IntArrayListBenchmark
+{
+    private static final int SIZE = 10_000_000;
+    private static final long WORK = 200_000_000L; // elements visited per timing
+
+    private static int rounds;
+
+    /**
+     * Fills a list with pseudo-random ints and prints the average time per
+     * pass for each aggregate, scalar loop first.
+     *
+     * @param args Optionally the list size (default 10,000,000); a size
+     *             that fits in the CPU cache shows the kernels without
+     *             being limited by memory bandwidth
+     */
+    public static void main(String[] args)
+    {
+        IntArrayList list = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : SIZE;
+        rounds = (int) Math.max(20, WORK / size);
+        int seed = 150;
+        for (int i = 0; i < size; i++) {
+            seed = seed * 1103515245 + 12345;
+            list.add(seed >> 8);
+        }
+        int target = list.get(size - 1);
+
+        int[] a = list.toArray(new int[0]);
+        int n = a.length;
+
+        System.out.println("aggregates use the Vector API: " + (IntKernels.VECTORIZED ? "yes" : "no"));
+        System.out.println("operation      get(i) loop    scalar kernel    aggregate");
+        report("sum", time(() -> scalarSum(list)), time(() -> IntKernels.scalarSum(a, n)),
+               time(() -> list.sum()));
+        report("min", time(() -> scalarMin(list)), time(() -> IntKernels.scalarMin(a, n)),
+               time(() -> list.min()));
+        report("max", time(() -> scalarMax(list)), time(() -> IntKernels.scalarMax(a, n)),
+               time(() -> list.max()));
+        report("indexOf", time(() -> scalarIndexOf(list, target)), time(() -> IntKernels.scalarIndexOf(a, n, target)),
+               time(() -> list.indexOf(target)));
+        report("countEquals", time(() -> scalarCount(list, target)), time(() -> IntKernels.scalarCountEquals(a, n, target)),
+               time(() -> list.countEquals(target)));
+    }
+
+    private interface Pass { long run(); }
+
+    private static long sink;
+
+    private static double time(Pass pass)
+    {
+        for (int i = 0; i < rounds; i++) sink += pass.run(); // warm up the JIT
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) sink += pass.run();
+        return (System.nanoTime() - start) / 1e6 / rounds;
+    }
+
+    private static void report(String name, double getMs, double kernelMs, double aggregateMs)
+    {
+        System.out.printf("%-12s %10.3f ms %13.3f ms %9.3f ms  (%.1fx, %.1fx over scalar)%n",
+                          name, getMs, kernelMs, aggregateMs, getMs / aggregateMs, kernelMs / aggregateMs);
+    }
+
+    private static long scalarSum(IntArrayList list)
+    {
+        long s = 0;
+        for (int i = 0; i < list.size(); i++) s += list.get(i);
+        return s;
+    }
+
+    private static long scalarMin(IntArrayList list)
+    {
+        int m = list.get(0);
+        for (int i = 1; i < list.size(); i++) if (list.get(i) < m) m = list.get(i);
+        return m;
+    }
+
+    private static long scalarMax(IntArrayList list)
+    {
+        int m = list.get(0);
+        for (int i = 1; i < list.size(); i++) if (list.get(i) > m) m = list.get(i);
+        return m;
+    }
+
+    private static long scalarIndexOf(IntArrayList list, int e)
+    {
+        for (int i = 0; i < list.size(); i++) if (list.get(i) == e) return i;
+        return -1;
+    }
+
+    private static long scalarCount(IntArrayList list, int e)
+    {
+        int c = 0;
+        for (int i = 0; i < list.size(); i++) if (list.get(i) == e) c++;
+        return c;
+    }
+}
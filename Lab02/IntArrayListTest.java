@@ -1,6 +1,18 @@
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
 
 public class IntArrayListTest {
 
@@ -171,4 +183,692 @@ public class IntArrayListTest {
         list.reset();
         assertEquals(10, list.next());
     }
+
+    @Test
+    @DisplayName("geometric policy: capacity doubles when full")
+    void testGeometricGrowth() {
+        IntArrayList list = new IntArrayList(4, GrowthPolicy.geometric(2.0, 4, 0.25));
+        for (int i = 0; i < 4; i++) list.add(i);
+        assertEquals(4, list.arraySize());
+
+        list.add(4);
+        assertEquals(8, list.arraySize());
+        for (int i = 5; i < 9; i++) list.add(i);
+        assertEquals(16, list.arraySize());
+
+        list.add(0, -1); // insert also grows geometrically
+        assertEquals(10, list.size());
+        assertEquals(-1, list.get(0));
+        assertEquals(8, list.get(9));
+    }
+
+    @Test
+    @DisplayName("geometric policy: add/remove at the boundary does not resize")
+    void testGeometricHysteresis() {
+        IntArrayList list = new IntArrayList(4, GrowthPolicy.geometric(2.0, 4, 0.25));
+        for (int i = 0; i < 17; i++) list.add(i); // 4 -> 8 -> 16 -> 32
+        assertEquals(32, list.arraySize());
+
+        for (int i = 0; i < 100; i++) {
+            list.remove(list.size() - 1);
+            list.add(i);
+            assertEquals(32, list.arraySize());
+        }
+
+        // shrinks only once fewer than a quarter of the slots are used
+        while (list.size() > 8) list.remove(0);
+        assertEquals(32, list.arraySize());
+        list.remove(0);
+        assertEquals(7, list.size());
+        assertEquals(14, list.arraySize());
+
+        while (!list.isEmpty()) list.remove(0);
+        assertEquals(4, list.arraySize()); // never below minCapacity
+    }
+
+    @Test
+    @DisplayName("ensureCapacity() and trimToSize()")
+    void testEnsureCapacityAndTrim() {
+        IntArrayList list = new IntArrayList();
+        list.ensureCapacity(5); // already big enough
+        assertEquals(10, list.arraySize());
+
+        list.ensureCapacity(95);
+        assertEquals(95, list.arraySize());
+        for (int i = 0; i < 95; i++) list.add(i);
+        assertEquals(95, list.arraySize());
+
+        list.remove(94);
+        list.trimToSize();
+        assertEquals(94, list.size());
+        assertEquals(94, list.arraySize());
+        assertEquals(0, list.emptyCount());
+        assertEquals(93, list.get(93));
+
+        IntArrayList empty = new IntArrayList(GrowthPolicy.geometric(1.5, 2, 0.5));
+        empty.trimToSize();
+        assertEquals(0, empty.arraySize());
+        empty.add(7);
+        assertEquals(2, empty.arraySize());
+        assertEquals("7", empty.toString());
+    }
+
+    @Test
+    @DisplayName("growth policy: invalid arguments")
+    void testGrowthPolicyArguments() {
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.fixed(0));
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.geometric(1.0, 4, 0.25));
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.geometric(2.0, 0, 0.25));
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.geometric(2.0, 4, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new IntArrayList(-1, GrowthPolicy.fixed(10)));
+        assertThrows(NullPointerException.class, () -> new IntArrayList(null));
+    }
+
+    @Test
+    @DisplayName("addAll(): append array, append list, insert slice + bounds")
+    void testAddAll() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(new int[] {1, 2, 3});
+        assertEquals("1 2 3", list.toString());
+
+        list.addAll(1, new int[] {9, 7, 8, 9}, 1, 2); // inserts 7 8
+        assertEquals("1 7 8 2 3", list.toString());
+
+        IntArrayList other = new IntArrayList();
+        for (int i = 0; i < 12; i++) other.add(i);
+        list.addAll(other);
+        assertEquals(17, list.size());
+        assertEquals(20, list.arraySize()); // single grow
+        assertEquals(11, list.get(16));
+
+        list.addAll(list); // self append
+        assertEquals(34, list.size());
+        assertEquals(1, list.get(17));
+        assertEquals(11, list.get(33));
+
+        list.addAll(0, new int[0], 0, 0);
+        assertEquals(34, list.size());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(-1, new int[1], 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(list.size() + 1, new int[1], 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(0, new int[2], 1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(0, new int[2], -1, 1));
+    }
+
+    @Test
+    @DisplayName("removeRange(): shifts, shrinks once + bounds")
+    void testRemoveRange() {
+        IntArrayList list = new IntArrayList();
+        for (int i = 0; i < 25; i++) list.add(i);
+        assertEquals(30, list.arraySize());
+
+        list.removeRange(2, 20);
+        assertEquals("0 1 20 21 22 23 24", list.toString());
+        assertEquals(17, list.arraySize()); // size + 10
+
+        list.removeRange(3, 3);
+        assertEquals(7, list.size());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(-1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(3, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(0, list.size() + 1));
+
+        list.removeRange(0, list.size());
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    @DisplayName("toArray(dst): reuses dst when large enough")
+    void testToArray() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(new int[] {4, 5, 6});
+
+        int[] big = new int[5];
+        assertSame(big, list.toArray(big));
+        assertArrayEquals(new int[] {4, 5, 6, 0, 0}, big);
+
+        int[] small = new int[1];
+        int[] copy = list.toArray(small);
+        assertNotSame(small, copy);
+        assertArrayEquals(new int[] {4, 5, 6}, copy);
+    }
+
+    @Test
+    @DisplayName("intStream()/parallelIntStream(): unboxed pipelines")
+    void testIntStreams() {
+        IntArrayList list = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        for (int i = 1; i <= 100000; i++) list.add(i);
+
+        assertEquals(5000050000L, list.intStream().asLongStream().sum());
+        assertEquals(5000050000L, list.parallelIntStream().asLongStream().sum());
+        assertEquals(50000, list.parallelIntStream().filter(x -> x % 2 == 0).count());
+        assertArrayEquals(new int[] {2, 4, 6}, list.intStream().limit(3).map(x -> x * 2).toArray());
+        assertEquals(0, new IntArrayList().intStream().count());
+    }
+
+    @Test
+    @DisplayName("spliterator(): even splits, sized, late binding")
+    void testSpliterator() {
+        IntArrayList list = new IntArrayList();
+        Spliterator.OfInt it = list.spliterator();
+        for (int i = 0; i < 10; i++) list.add(i); // added after creation, still seen
+
+        assertEquals(10, it.estimateSize());
+        Spliterator.OfInt prefix = it.trySplit();
+        assertEquals(5, prefix.estimateSize());
+        assertEquals(5, it.estimateSize());
+        assertTrue(it.hasCharacteristics(Spliterator.SIZED));
+
+        StringBuilder sb = new StringBuilder();
+        prefix.forEachRemaining((int x) -> sb.append(x));
+        assertTrue(it.tryAdvance((int x) -> sb.append(x)));
+        assertEquals("012345", sb.toString());
+        assertEquals(4, it.estimateSize());
+    }
+
+    @Test
+    @DisplayName("sort(): insertion and radix paths match Arrays.sort")
+    void testSort() {
+        Random rnd = new Random(150);
+        for (int n : new int[] {0, 1, 5, 64, 65, 1000, 100000}) {
+            IntArrayList list = new IntArrayList();
+            int[] expected = new int[n];
+            for (int i = 0; i < n; i++) {
+                int v = (i % 3 == 0) ? rnd.nextInt() : rnd.nextInt(200) - 100;
+                expected[i] = v;
+                list.add(v);
+            }
+            Arrays.sort(expected);
+
+            list.sort();
+            assertTrue(list.isSorted());
+            assertArrayEquals(expected, list.toArray(new int[0]));
+        }
+
+        IntArrayList extremes = new IntArrayList();
+        extremes.addAll(new int[] {0, Integer.MAX_VALUE, -1, Integer.MIN_VALUE, 1});
+        for (int i = 0; i < 100; i++) extremes.add(7);
+        extremes.sort();
+        assertEquals(Integer.MIN_VALUE, extremes.get(0));
+        assertEquals(-1, extremes.get(1));
+        assertEquals(Integer.MAX_VALUE, extremes.get(extremes.size() - 1));
+    }
+
+    @Test
+    @DisplayName("parallelSort(): sorts and sets the sorted flag")
+    void testParallelSort() {
+        IntArrayList list = new IntArrayList();
+        for (int i = 50000; i > 0; i--) list.add(i);
+        assertFalse(list.isSorted());
+
+        list.parallelSort();
+        assertTrue(list.isSorted());
+        assertEquals(1, list.get(0));
+        assertEquals(50000, list.get(49999));
+    }
+
+    @Test
+    @DisplayName("sorted flag: kept by in-order adds, cleared by out-of-order ones")
+    void testSortedFlag() {
+        IntArrayList list = new IntArrayList();
+        assertTrue(list.isSorted());
+
+        list.addAll(new int[] {1, 3, 5});
+        list.add(5);
+        list.add(1, 2);
+        assertTrue(list.isSorted());
+        assertEquals("1 2 3 5 5", list.toString());
+
+        list.add(0, 9);
+        assertFalse(list.isSorted());
+        list.remove(0); // removals never clear it, but do not set it either
+        assertFalse(list.isSorted());
+
+        list.sort();
+        list.addAll(2, new int[] {2, 4}, 0, 2); // 4 lands before 3
+        assertFalse(list.isSorted());
+
+        list.clear();
+        assertTrue(list.isSorted());
+    }
+
+    @Test
+    @DisplayName("binarySearch(), indexOf(), contains(): sorted and unsorted paths")
+    void testSearch() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(new int[] {8, 3, 3, 5, -2});
+        assertFalse(list.isSorted());
+        assertEquals(1, list.indexOf(3));
+        assertEquals(-1, list.indexOf(4));
+        assertTrue(list.contains(-2));
+        assertThrows(IllegalStateException.class, () -> list.binarySearch(3));
+
+        list.sort(); // -2 3 3 5 8
+        assertEquals(1, list.binarySearch(3)); // first occurrence
+        assertEquals(1, list.indexOf(3));
+        assertEquals(-4, list.binarySearch(4)); // insertion point 3
+        assertEquals(-1, list.binarySearch(-5));
+        assertEquals(-6, list.binarySearch(9));
+        assertEquals(-1, list.indexOf(4));
+        assertTrue(list.contains(8));
+        assertFalse(list.contains(9));
+    }
+
+    @Test
+    @DisplayName("writeTo(Path)/mapFrom(Path): round trip + bad files")
+    void testWriteToAndMapFrom() throws IOException {
+        Path file = Files.createTempFile("intarraylist", ".bin");
+        try {
+            IntArrayList list = new IntArrayList();
+            for (int i = 0; i < 1000; i++) list.add(i * 7 - 3000);
+            list.add(Integer.MIN_VALUE);
+            list.writeTo(file);
+            assertEquals(12 + 4 * 1001, Files.size(file));
+
+            IntArrayList loaded = IntArrayList.mapFrom(file);
+            assertEquals(list.size(), loaded.size());
+            assertEquals(list.toString(), loaded.toString());
+            assertFalse(loaded.isSorted());
+
+            list.sort();
+            list.writeTo(file); // overwrite with a shorter-or-equal file
+            loaded = IntArrayList.mapFrom(file, GrowthPolicy.geometric(2.0, 16, 0.25));
+            assertTrue(loaded.isSorted());
+            assertEquals(Integer.MIN_VALUE, loaded.get(0));
+            loaded.add(Integer.MAX_VALUE); // still a normal, growable list
+            assertEquals(1002, loaded.size());
+
+            new IntArrayList().writeTo(file);
+            assertTrue(IntArrayList.mapFrom(file).isEmpty());
+
+            list.writeTo(file, 64); // 16 ints per mapping
+            assertEquals(12 + 4 * 1001, Files.size(file));
+            loaded = IntArrayList.mapFrom(file, GrowthPolicy.fixed(10), 40);
+            assertEquals(list.toString(), loaded.toString());
+            assertEquals(list.toString(), IntArrayList.mapFrom(file).toString());
+            loaded.clear(); // back to the default capacity, not the loaded size
+            assertEquals(10, loaded.arraySize());
+
+            Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+            assertThrows(IOException.class, () -> IntArrayList.mapFrom(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("cursor(): independent cursors, reset and reuse")
+    void testCursors() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(new int[] {1, 2, 3});
+
+        IntCursor a = list.cursor();
+        IntCursor b = list.cursor();
+        assertEquals(1, a.nextInt());
+        assertEquals(2, a.nextInt());
+        assertEquals(1, b.nextInt()); // b is not moved by a
+        assertEquals(3, a.nextInt());
+        assertFalse(a.hasNext());
+        assertTrue(b.hasNext());
+        NoSuchElementException ex = assertThrows(NoSuchElementException.class, () -> a.nextInt());
+        assertEquals("End of stored data is reached.", ex.getMessage());
+
+        a.reset();
+        int sum = 0;
+        while (a.hasNext()) sum += a.nextInt();
+        assertEquals(6, sum);
+
+        IntCursor empty = new IntArrayList().cursor();
+        assertFalse(empty.hasNext());
+    }
+
+    @Test
+    @DisplayName("cursor()/spliterator(): fail fast on modification, reset accepts it")
+    void testFailFast() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(new int[] {1, 2, 3});
+
+        IntCursor c = list.cursor();
+        c.nextInt();
+        list.add(4);
+        assertThrows(ConcurrentModificationException.class, () -> c.nextInt());
+
+        c.reset();
+        assertEquals(1, c.nextInt());
+        list.remove(0);
+        assertThrows(ConcurrentModificationException.class, () -> c.nextInt());
+        c.reset();
+        list.sort();
+        assertThrows(ConcurrentModificationException.class, () -> c.nextInt());
+
+        list.ensureCapacity(100); // resizing alone is not a modification
+        c.reset();
+        list.ensureCapacity(200);
+        assertEquals(2, c.nextInt());
+
+        assertThrows(ConcurrentModificationException.class,
+            () -> list.intStream().forEach(x -> list.add(x)));
+    }
+
+    @Test
+    @DisplayName("sum(), min(), max(), countEquals(): sorted and unsorted")
+    void testAggregates() {
+        IntArrayList list = new IntArrayList();
+        assertEquals(0, list.sum());
+        assertEquals(0, list.countEquals(1));
+        assertThrows(NoSuchElementException.class, () -> list.min());
+        assertThrows(NoSuchElementException.class, () -> list.max());
+
+        list.addAll(new int[] {5, -3, Integer.MAX_VALUE, 5, Integer.MAX_VALUE, 0, 5});
+        assertEquals(2L * Integer.MAX_VALUE + 12, list.sum()); // no int overflow
+        assertEquals(-3, list.min());
+        assertEquals(Integer.MAX_VALUE, list.max());
+        assertEquals(3, list.countEquals(5));
+        assertEquals(0, list.countEquals(4));
+
+        list.sort();
+        assertEquals(-3, list.min());
+        assertEquals(Integer.MAX_VALUE, list.max());
+        assertEquals(3, list.countEquals(5));
+        assertEquals(2, list.countEquals(Integer.MAX_VALUE));
+        assertEquals(0, list.countEquals(4));
+    }
+
+    @Test
+    @DisplayName("aggregates match the scalar kernels at every length, Vector API or not")
+    void testAggregateKernels() {
+        Random rnd = new Random(10);
+        for (int n = 1; n <= 300; n++) {
+            IntArrayList list = new IntArrayList();
+            for (int i = 0; i < n; i++) {
+                int r = rnd.nextInt(4);
+                list.add(r == 0 ? Integer.MIN_VALUE : r == 1 ? Integer.MAX_VALUE : rnd.nextInt(7) - 3);
+            }
+            int[] a = list.toArray(new int[0]);
+            assertEquals(IntKernels.scalarSum(a, n), list.sum());
+            assertEquals(IntKernels.scalarMin(a, n), list.min());
+            assertEquals(IntKernels.scalarMax(a, n), list.max());
+            for (int e = -4; e <= 4; e++) {
+                assertEquals(IntKernels.scalarCountEquals(a, n, e), list.countEquals(e));
+                assertEquals(IntKernels.scalarIndexOf(a, n, e), list.indexOf(e));
+            }
+            assertEquals(IntKernels.scalarCountEquals(a, n, Integer.MAX_VALUE), list.countEquals(Integer.MAX_VALUE));
+        }
+
+        IntArrayList big = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        for (int i = 0; i < 200000; i++) big.add(Integer.MAX_VALUE - (i & 1)); // crosses sum blocks
+        big.add(0, Integer.MIN_VALUE);
+        assertEquals(200000L * Integer.MAX_VALUE - 100000 + Integer.MIN_VALUE, big.sum());
+        assertEquals(Integer.MIN_VALUE, big.min());
+        assertEquals(100000, big.countEquals(Integer.MAX_VALUE));
+        assertEquals(1, big.indexOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("gap buffer: edits around a moving position match normal mode")
+    void testGapBufferMatchesNormalMode() {
+        IntArrayList gap = new IntArrayList();
+        IntArrayList plain = new IntArrayList();
+        gap.setGapBuffer(true);
+        assertTrue(gap.isGapBuffer());
+
+        Random rnd = new Random(13);
+        int pos = 0;
+        for (int step = 0; step < 5000; step++) {
+            pos = Math.max(0, Math.min(plain.size(), pos + rnd.nextInt(5) - 2));
+            if (plain.size() > 0 && pos < plain.size() && rnd.nextInt(3) == 0) {
+                assertEquals(plain.remove(pos), gap.remove(pos));
+            } else {
+                gap.add(pos, step);
+                plain.add(pos, step);
+            }
+            assertEquals(plain.size(), gap.size());
+            if (step % 97 == 0) {
+                for (int i = 0; i < plain.size(); i++) assertEquals(plain.get(i), gap.get(i));
+            }
+        }
+        assertEquals(plain.toString(), gap.toString());
+        assertEquals(plain.arraySize(), gap.arraySize());
+    }
+
+    @Test
+    @DisplayName("gap buffer: hidden from get/toString and from every other operation")
+    void testGapBufferIsHidden() {
+        IntArrayList list = new IntArrayList();
+        list.setGapBuffer(true);
+        list.addAll(new int[] {1, 2, 3, 4, 5, 6});
+
+        list.add(2, 9);    // gap now sits after index 2
+        assertEquals(4, list.get(4));
+        assertEquals("1 2 9 3 4 5 6", list.toString());
+
+        list.add(3, 8);
+        list.remove(0);
+        assertEquals(6, list.get(6));
+        IntArraySnapshot snap = list.snapshot();
+        list.add(1, 7);
+        assertEquals("2 9 8 3 4 5 6", snap.toString());
+        assertEquals("2 7 9 8 3 4 5 6", list.toString());
+
+        list.add(2, 0);
+        assertEquals(44, list.sum());
+        assertEquals(9, list.max());
+        assertEquals(3, list.indexOf(9));
+        assertArrayEquals(new int[] {2, 7, 0, 9, 8, 3, 4, 5, 6}, list.toArray(new int[0]));
+
+        list.remove(1);
+        list.add(1, 1);
+        list.add(99); // append closes the gap
+        assertEquals("2 1 0 9 8 3 4 5 6 99", list.toString());
+
+        list.add(4, -1);
+        list.sort();
+        assertEquals("-1 0 1 2 3 4 5 6 8 9 99", list.toString());
+
+        list.add(0, -5);
+        list.setGapBuffer(false);
+        assertFalse(list.isGapBuffer());
+        assertEquals(-5, list.get(0));
+        assertEquals(99, list.get(list.size() - 1));
+    }
+
+    @Test
+    @DisplayName("gap buffer: grow, shrink and cursors with the gap in the middle")
+    void testGapBufferResize() throws Exception {
+        IntArrayList list = new IntArrayList();
+        list.setGapBuffer(true);
+        for (int i = 0; i < 30; i++) list.add(list.size() / 2, i);
+        IntArrayList plain = new IntArrayList();
+        for (int i = 0; i < 30; i++) plain.add(plain.size() / 2, i);
+        assertEquals(plain.toString(), list.toString());
+
+        for (int i = 0; i < 25; i++) {
+            list.add(2, -i);
+            list.remove(3);
+            list.remove(3);
+            plain.add(2, -i);
+            plain.remove(3);
+            plain.remove(3);
+        }
+        assertEquals(5, list.size());
+        assertEquals(15, list.arraySize()); // shrunk with the gap open
+        assertEquals(plain.toString(), list.toString());
+
+        IntCursor c = list.cursor();
+        list.reset();
+        for (int i = 0; i < list.size(); i++) assertEquals(list.next(), c.nextInt());
+    }
+
+    @Test
+    @DisplayName("hash index: removals at the end keep first/last occurrences right")
+    void testHashIndexTailRemoval() {
+        IntArrayList indexed = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        IntArrayList plain = new IntArrayList();
+        indexed.setHashIndex(true);
+
+        Random rnd = new Random(41);
+        for (int step = 0; step < 5000; step++) {
+            int op = rnd.nextInt(8);
+            if (op < 4 || plain.size() == 0) {
+                int v = rnd.nextInt(40);   // few values: long probe runs and many duplicates
+                indexed.add(v);
+                plain.add(v);
+            } else if (op < 7) {
+                assertEquals(plain.remove(plain.size() - 1), indexed.remove(indexed.size() - 1));
+            } else {
+                int from = Math.max(0, plain.size() - rnd.nextInt(6));
+                indexed.removeRange(from, indexed.size());
+                plain.removeRange(from, plain.size());
+            }
+
+            int probe = rnd.nextInt(42);
+            assertEquals(plain.indexOf(probe), indexed.indexOf(probe));
+            assertEquals(plain.lastIndexOf(probe), indexed.lastIndexOf(probe));
+        }
+        for (int v = 0; v < 40; v++) {
+            assertEquals(plain.indexOf(v), indexed.indexOf(v));
+            assertEquals(plain.lastIndexOf(v), indexed.lastIndexOf(v));
+        }
+    }
+
+    @Test
+    @DisplayName("hash index: indexOf/lastIndexOf/contains agree with a plain scan")
+    void testHashIndex() {
+        IntArrayList indexed = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        IntArrayList plain = new IntArrayList();
+        indexed.setHashIndex(true);
+        assertTrue(indexed.hasHashIndex());
+        assertEquals(-1, indexed.indexOf(1));
+
+        Random rnd = new Random(14);
+        for (int step = 0; step < 3000; step++) {
+            int op = rnd.nextInt(10);
+            int v = rnd.nextInt(200) - 100;
+            if (op < 5) {
+                indexed.add(v);
+                plain.add(v);
+            } else if (op < 7) {
+                int at = rnd.nextInt(plain.size() + 1);
+                indexed.add(at, v);
+                plain.add(at, v);
+            } else if (op < 9 && plain.size() > 0) {
+                int at = rnd.nextInt(plain.size());
+                assertEquals(plain.remove(at), indexed.remove(at));
+            } else {
+                indexed.addAll(new int[] {v, v + 1, v});
+                plain.addAll(new int[] {v, v + 1, v});
+            }
+
+            int probe = rnd.nextInt(220) - 110;
+            assertEquals(plain.indexOf(probe), indexed.indexOf(probe));
+            assertEquals(plain.lastIndexOf(probe), indexed.lastIndexOf(probe));
+            assertEquals(plain.contains(probe), indexed.contains(probe));
+        }
+
+        indexed.sort();
+        plain.sort();
+        assertEquals(plain.indexOf(0), indexed.indexOf(0));
+        assertEquals(plain.lastIndexOf(0), indexed.lastIndexOf(0));
+
+        indexed.clear();
+        assertFalse(indexed.contains(0));
+        indexed.add(Integer.MIN_VALUE);
+        assertEquals(0, indexed.indexOf(Integer.MIN_VALUE));
+
+        indexed.setHashIndex(false);
+        assertFalse(indexed.hasHashIndex());
+        assertEquals(0, indexed.indexOf(Integer.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("lastIndexOf(): unsorted and sorted paths")
+    void testLastIndexOf() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(new int[] {4, 1, 4, Integer.MAX_VALUE, 1});
+        assertEquals(2, list.lastIndexOf(4));
+        assertEquals(4, list.lastIndexOf(1));
+        assertEquals(-1, list.lastIndexOf(7));
+
+        list.sort(); // 1 1 4 4 MAX
+        assertEquals(1, list.lastIndexOf(1));
+        assertEquals(3, list.lastIndexOf(4));
+        assertEquals(4, list.lastIndexOf(Integer.MAX_VALUE));
+        assertEquals(-1, list.lastIndexOf(2));
+        assertEquals(-1, new IntArrayList().lastIndexOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("writeTo(Appendable/Writer): same text as toString(), in bounded batches")
+    void testWriteText() throws IOException {
+        IntArrayList list = new IntArrayList();
+        StringBuilder sb = new StringBuilder();
+        list.writeTo(sb);
+        assertEquals("", sb.toString());
+
+        list.addAll(new int[] {0, -1, 9, 10, -10, 99, 100, -100, 12345, Integer.MAX_VALUE, Integer.MIN_VALUE});
+        Random rnd = new Random(15);
+        for (int i = 0; i < 5000; i++) list.add(rnd.nextInt() >> rnd.nextInt(32));
+
+        sb.setLength(0);
+        list.writeTo(sb);
+        assertEquals(list.toString(), sb.toString());
+
+        for (int batch : new int[] {1, 12, 13, 100, 1 << 16}) {
+            StringWriter w = new StringWriter();
+            list.writeTo(w, batch);
+            assertEquals(list.toString(), w.toString(), "batch " + batch);
+        }
+
+        // every write is at most one batch long
+        int[] largest = new int[1];
+        Writer probe = new Writer() {
+            public void write(char[] cbuf, int off, int len) { largest[0] = Math.max(largest[0], len); }
+            public void flush() {}
+            public void close() {}
+        };
+        list.writeTo(probe, 64);
+        assertTrue(largest[0] <= 64);
+        assertThrows(IllegalArgumentException.class, () -> list.writeTo(probe, 0));
+    }
+
+    @Test
+    @DisplayName("parse(Path/InputStream): reads back what writeTo() wrote")
+    void testParse() throws IOException {
+        IntArrayList list = new IntArrayList();
+        list.addAll(new int[] {0, -7, Integer.MAX_VALUE, Integer.MIN_VALUE, 42});
+        Random rnd = new Random(16);
+        for (int i = 0; i < 100000; i++) list.add(rnd.nextInt() >> rnd.nextInt(32));
+
+        Path file = Files.createTempFile("ial", ".txt");
+        try {
+            try (Writer w = Files.newBufferedWriter(file)) {
+                list.writeTo(w, 4096);
+            }
+            IntArrayList back = IntArrayList.parse(file);
+            assertEquals(list.size(), back.size());
+            assertEquals(list.toString(), back.toString());
+            assertFalse(back.isSorted());
+            assertTrue(back.arraySize() - back.size() <= back.size() / 8 + 10);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // numbers split across reads, mixed whitespace, no trailing newline
+        byte[] text = "  12\t-3\r\n\n4000000 -2147483648 2147483647".getBytes();
+        InputStream trickle = new ByteArrayInputStream(text) {
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+        assertEquals("12 -3 4000000 -2147483648 2147483647", IntArrayList.parse(trickle).toString());
+
+        IntArrayList sorted = IntArrayList.parse(new ByteArrayInputStream("1 2 2 9\n".getBytes()));
+        assertTrue(sorted.isSorted());
+        assertEquals(0, IntArrayList.parse(new ByteArrayInputStream(new byte[0])).size());
+
+        for (String bad : new String[] {"1 x", "2147483648", "-2147483649", "- 1", "1-2", "3 -"}) {
+            assertThrows(NumberFormatException.class,
+                () -> IntArrayList.parse(new ByteArrayInputStream(bad.getBytes())));
+        }
+    }
 }
@@ -0,0 +1,145 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * A pool of int[] arrays that IntArrayLists can borrow their backing arrays
+ * from and hand them back to, so short-lived lists stop allocating.
+ *
+ * Arrays come in size classes that are powers of two (16, 32, 64, ...), so a
+ * pooled list's capacity is always rounded up to the next class. Each thread
+ * keeps a few arrays of every class for itself (no synchronization at all);
+ * when that runs dry or overflows it falls back to a small shared stash that
+ * threads update with compare-and-set. Arrays longer than maxArrayLength are
+ * never pooled.
+ *
+ * Borrowed arrays are not cleared: they may still hold old values.
+ */
+public class IntArrayPool {
+    private static final int MIN_SHIFT = 4; // smallest class holds 16 ints
+
+    private final int maxShift;
+    private final AtomicReferenceArray<int[]>[] shared; // one row of slots per class
+    private final ThreadLocal<int[][][]> local;       // [class][slot], null = empty
+    private final AtomicLong allocations = new AtomicLong();
+
+    /*
+     * Creates a pool for arrays of up to 2^20 ints, keeping 4 arrays per size
+     * class for each thread and 16 more per class shared between threads.
+     */
+    public IntArrayPool() {
+        this(1 << 20, 4, 16);
+    }
+
+    /*
+     * Creates a pool with the given limits.
+     *
+     * @param maxArrayLength The longest array the pool will hold on to
+     *        (rounded up to a power of two).
+     * @param perThread The number of arrays of each size class one thread keeps.
+     * @param sharedSlots The number of arrays of each size class shared by all threads.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IntArrayPool(int maxArrayLength, int perThread, int sharedSlots) {
+        if (maxArrayLength < 1 || maxArrayLength > 1 << 30) {
+            throw new IllegalArgumentException("maxArrayLength must be in 1..2^30");
+        }
+        if (perThread < 0 || sharedSlots < 0) throw new IllegalArgumentException("slot counts must not be negative");
+
+        maxShift = Math.max(MIN_SHIFT, shiftFor(maxArrayLength));
+        int classes = maxShift - MIN_SHIFT + 1;
+        shared = new AtomicReferenceArray[classes];
+        for (int c = 0; c < classes; c++) shared[c] = new AtomicReferenceArray<int[]>(sharedSlots);
+        local = ThreadLocal.withInitial(() -> new int[classes][perThread][]);
+    }
+
+    /*
+     * Returns an array of at least minLength ints: the smallest size class that
+     * fits, taken from this thread's arrays, then the shared ones, and only
+     * allocated if both are empty.
+     *
+     * @param minLength The number of ints the caller needs.
+     * @return An array whose length is minLength rounded up to a size class
+     *         (or exactly minLength if it is too long to pool).
+     */
+    public int[] borrow(int minLength) {
+        if (minLength < 0) throw new IllegalArgumentException("minLength must not be negative");
+        int shift = shiftFor(minLength);
+        if (shift > maxShift) {
+            allocations.incrementAndGet();
+            return new int[minLength];
+        }
+        int c = shift - MIN_SHIFT;
+
+        int[][] mine = local.get()[c];
+        for (int s = mine.length - 1; s >= 0; s--) {
+            int[] a = mine[s];
+            if (a != null) {
+                mine[s] = null;
+                return a;
+            }
+        }
+        AtomicReferenceArray<int[]> row = shared[c];
+        for (int s = 0; s < row.length(); s++) {
+            int[] a = row.get(s);
+            if (a != null && row.compareAndSet(s, a, null)) return a;
+        }
+        allocations.incrementAndGet();
+        return new int[1 << shift];
+    }
+
+    /*
+     * Gives an array back to the pool. Arrays whose length is not a size class
+     * of this pool are ignored, as is anything once the pool is full. The
+     * caller must not use the array afterwards.
+     *
+     * @param array The array to return.
+     */
+    public void release(int[] array) {
+        int length = array.length;
+        if (Integer.bitCount(length) != 1) return;
+        int shift = Integer.numberOfTrailingZeros(length);
+        if (shift < MIN_SHIFT || shift > maxShift) return;
+        int c = shift - MIN_SHIFT;
+
+        int[][] mine = local.get()[c];
+        for (int s = 0; s < mine.length; s++) {
+            if (mine[s] == null) {
+                mine[s] = array;
+                return;
+            }
+        }
+        AtomicReferenceArray<int[]> row = shared[c];
+        for (int s = 0; s < row.length(); s++) {
+            if (row.get(s) == null && row.compareAndSet(s, null, array)) return;
+        }
+    }
+
+    /*
+     * Returns the length borrow(minLength) would return.
+     *
+     * @param minLength The number of ints the caller needs.
+     * @return The array length handed out for that request.
+     */
+    public int lengthFor(int minLength) {
+        int shift = shiftFor(minLength);
+        return shift > maxShift ? minLength : 1 << shift;
+    }
+
+    /*
+     * Returns how many arrays the pool has had to allocate so far. In steady
+     * state this stops growing.
+     *
+     * @return The number of arrays created by borrow().
+     */
+    public long allocations() {
+        return allocations.get();
+    }
+
+    /*
+     * Returns the exponent of the size class that fits length ints.
+     */
+    private static int shiftFor(int length) {
+        if (length <= 1 << MIN_SHIFT) return MIN_SHIFT;
+        return 32 - Integer.numberOfLeadingZeros(length - 1);
+    }
+}
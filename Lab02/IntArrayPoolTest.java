@@ -0,0 +1,174 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class IntArrayPoolTest {
+
+    @Test
+    @DisplayName("borrow()/release(): size classes and reuse")
+    void testBorrowRelease() {
+        IntArrayPool pool = new IntArrayPool(1024, 2, 2);
+        assertEquals(16, pool.lengthFor(0));
+        assertEquals(16, pool.lengthFor(16));
+        assertEquals(32, pool.lengthFor(17));
+        assertEquals(1024, pool.lengthFor(1000));
+        assertEquals(5000, pool.lengthFor(5000)); // too long to pool
+
+        int[] a = pool.borrow(20);
+        assertEquals(32, a.length);
+        assertEquals(1, pool.allocations());
+        pool.release(a);
+        assertSame(a, pool.borrow(30));
+        assertEquals(1, pool.allocations());
+
+        pool.release(new int[10]);   // not a size class: dropped
+        pool.release(new int[4096]); // larger than the pool holds: dropped
+        assertEquals(16, pool.borrow(1).length);
+        assertEquals(4096, pool.borrow(4096).length);
+        assertEquals(3, pool.allocations());
+
+        assertThrows(IllegalArgumentException.class, () -> pool.borrow(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IntArrayPool(0, 1, 1));
+    }
+
+    @Test
+    @DisplayName("thread-local slots overflow into the shared slots")
+    void testSharedFallback() throws InterruptedException {
+        IntArrayPool pool = new IntArrayPool(64, 1, 4);
+        int[] first = pool.borrow(16);
+        int[] second = pool.borrow(16);
+        pool.release(first);  // thread-local slot
+        pool.release(second); // shared slot
+
+        int[][] got = new int[1][];
+        Thread other = new Thread(() -> got[0] = pool.borrow(16));
+        other.start();
+        other.join();
+        assertSame(second, got[0]);
+        assertEquals(2, pool.allocations());
+    }
+
+    @Test
+    @DisplayName("pooled IntArrayList: addAll(itself) never copies from an array given back to the pool")
+    void testSelfAddAll() {
+        // a released array may be borrowed and written by another thread at
+        // once; this pool scribbles over it to make that happen every time
+        IntArrayPool pool = new IntArrayPool() {
+            @Override
+            public void release(int[] array) {
+                Arrays.fill(array, -7);
+                super.release(array);
+            }
+        };
+        IntArrayList list = new IntArrayList(16, GrowthPolicy.geometric(2.0, 16, 0.25), pool);
+        for (int i = 0; i < 16; i++) list.add(i); // full: the next addAll has to grow
+        list.addAll(list);
+        list.addAll(list);
+        assertEquals(64, list.size());
+        for (int i = 0; i < 64; i++) assertEquals(i % 16, list.get(i));
+
+        IntArrayList roomy = new IntArrayList(64, GrowthPolicy.fixed(10), pool);
+        for (int i = 0; i < 10; i++) roomy.add(i);
+        roomy.addAll(roomy); // fits without growing
+        assertEquals("0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9", roomy.toString());
+    }
+
+    @Test
+    @DisplayName("pooled IntArrayList: steady-state reuse allocates nothing")
+    void testSteadyState() {
+        IntArrayPool pool = new IntArrayPool();
+        for (int round = 0; round < 200; round++) {
+            IntArrayList list = new IntArrayList(16, GrowthPolicy.geometric(2.0, 16, 0.25), pool);
+            for (int i = 0; i < 1000; i++) list.add(1000 - i);
+            list.sort();
+            assertEquals(1, list.get(0));
+            while (list.size() > 100) list.remove(list.size() - 1);
+            list.clear();
+            for (int i = 0; i < 50; i++) list.add(i);
+            assertEquals(49, list.get(49));
+            list.release();
+            assertEquals(0, list.size());
+            if (round == 0) assertTrue(pool.allocations() > 0);
+        }
+        long warm = pool.allocations();
+        for (int round = 0; round < 200; round++) {
+            IntArrayList list = new IntArrayList(16, GrowthPolicy.geometric(2.0, 16, 0.25), pool);
+            for (int i = 0; i < 1000; i++) list.add(i);
+            list.release();
+        }
+        assertEquals(warm, pool.allocations());
+    }
+
+    @Test
+    @DisplayName("pooled IntArrayList: behaves like an unpooled one")
+    void testPooledListMatchesPlain() {
+        IntArrayPool pool = new IntArrayPool(256, 2, 2);
+        IntArrayList pooled = new IntArrayList(10, GrowthPolicy.fixed(10), pool);
+        IntArrayList plain = new IntArrayList();
+        assertEquals(16, pooled.arraySize());
+
+        Random rnd = new Random(18);
+        for (int step = 0; step < 5000; step++) {
+            int op = rnd.nextInt(10);
+            if (op < 6 || plain.size() == 0) {
+                int v = rnd.nextInt(1000);
+                pooled.add(v);
+                plain.add(v);
+            } else if (op < 9) {
+                int at = rnd.nextInt(plain.size());
+                assertEquals(plain.remove(at), pooled.remove(at));
+            } else if (op == 9 && rnd.nextInt(20) == 0) {
+                pooled.release();
+                plain.clear();
+            }
+            assertEquals(plain.size(), pooled.size());
+            assertTrue(Integer.bitCount(pooled.arraySize()) <= 1 || pooled.arraySize() > 256);
+        }
+        assertEquals(plain.toString(), pooled.toString());
+        pooled.sort();
+        plain.sort();
+        assertEquals(plain.toString(), pooled.toString());
+    }
+
+    @Test
+    @DisplayName("arrays a snapshot still reads are never returned to the pool")
+    void testSnapshotKeepsArray() {
+        IntArrayPool pool = new IntArrayPool();
+        IntArrayList list = new IntArrayList(16, GrowthPolicy.geometric(2.0, 16, 0.25), pool);
+        for (int i = 0; i < 10; i++) list.add(i);
+        IntArraySnapshot snap = list.snapshot();
+
+        list.release();
+        IntArrayList other = new IntArrayList(16, GrowthPolicy.geometric(2.0, 16, 0.25), pool);
+        for (int i = 0; i < 16; i++) other.add(-1);
+        for (int i = 0; i < 30; i++) list.add(-2); // grows, possibly from the pool
+
+        assertEquals("0 1 2 3 4 5 6 7 8 9", snap.toString());
+    }
+
+    @Test
+    @DisplayName("no array is handed to two threads at once")
+    void testConcurrentBorrow() throws InterruptedException {
+        IntArrayPool pool = new IntArrayPool(256, 1, 2);
+        AtomicBoolean broken = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t + 1;
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 5000; round++) {
+                    int[] a = pool.borrow(64);
+                    Arrays.fill(a, id);
+                    Thread.yield();
+                    for (int v : a) if (v != id) broken.set(true);
+                    pool.release(a);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        assertFalse(broken.get());
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/*
+ * A read-only view of an IntArrayList at the moment IntArrayList.snapshot()
+ * was called. It shares the list's backing array; the list makes its own
+ * copy before changing anything the view can see, so the view never
+ * changes and readers never block writers.
+ */
+public class IntArraySnapshot {
+    private final int[] data;
+    private final int size;
+    private final boolean sorted;
+
+    /*
+     * Creates a view of data[0..size-1]. Only IntArrayList creates these.
+     */
+    IntArraySnapshot(int[] data, int size, boolean sorted) {
+        this.data = data;
+        this.size = size;
+        this.sorted = sorted;
+    }
+
+    /*
+     * Returns the number of elements in the snapshot.
+     *
+     * @return The logical size of the snapshot.
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Checks whether the snapshot contains no elements.
+     *
+     * @return true if the snapshot is empty; false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+     * Returns the integer stored at the specified index.
+     *
+     * @param index The position to retrieve (0..size-1).
+     * @return The integer at the given index.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return data[index];
+    }
+
+    /*
+     * Returns whether the list was known to be sorted when the snapshot was taken.
+     *
+     * @return true if the snapshot is sorted; false otherwise.
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /*
+     * Returns the index of the first occurrence of the given integer, using
+     * binary search if the snapshot is sorted.
+     *
+     * @param e The integer to look for.
+     * @return The first index holding e, or -1 if it is not in the snapshot.
+     */
+    public int indexOf(int e) {
+        if (sorted) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (data[mid] < e) lo = mid + 1;
+                else hi = mid;
+            }
+            return (lo < size && data[lo] == e) ? lo : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (data[i] == e) return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Checks whether the snapshot contains the given integer.
+     *
+     * @param e The integer to look for.
+     * @return true if e is in the snapshot; false otherwise.
+     */
+    public boolean contains(int e) {
+        return indexOf(e) >= 0;
+    }
+
+    /*
+     * Copies the integers into dst if it is large enough, otherwise into a
+     * new array of exactly size() elements.
+     *
+     * @param dst The array to fill, if it has room.
+     * @return The array holding the integers (dst or a new array).
+     */
+    public int[] toArray(int[] dst) {
+        if (dst.length < size) dst = new int[size];
+        System.arraycopy(data, 0, dst, 0, size);
+        return dst;
+    }
+
+    /*
+     * Returns a sequential IntStream over the snapshot.
+     *
+     * @return A stream of the elements in order.
+     */
+    public IntStream intStream() {
+        return Arrays.stream(data, 0, size);
+    }
+
+    /*
+     * Returns a new cursor over the snapshot. The snapshot never changes,
+     * so the cursor never fails fast.
+     *
+     * @return A cursor positioned at the first element.
+     */
+    public IntCursor cursor() {
+        return new IntCursor() {
+            private int index;
+
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            public int nextInt() {
+                if (index >= size) throw new NoSuchElementException("End of stored data is reached.");
+                return data[index++];
+            }
+
+            public void reset() {
+                index = 0;
+            }
+        };
+    }
+
+    /*
+     * Returns the stored integers as a single string, separated by one space,
+     * in the same format as IntArrayList.toString().
+     *
+     * @return A space-separated string of the stored integers.
+     */
+    public String toString() {
+        if (size == 0) return "";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(data[0]);
+        for (int i = 1; i < size; i++) sb.append(' ').append(data[i]);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+public class IntArraySnapshotTest {
+
+    private static IntArrayList listOf(int... values) {
+        IntArrayList list = new IntArrayList();
+        list.addAll(values);
+        return list;
+    }
+
+    @Test
+    @DisplayName("snapshot(): view of the current elements")
+    void testView() {
+        IntArrayList list = listOf(3, 1, 2);
+        IntArraySnapshot snap = list.snapshot();
+
+        assertEquals(3, snap.size());
+        assertFalse(snap.isEmpty());
+        assertEquals(1, snap.get(1));
+        assertEquals("3 1 2", snap.toString());
+        assertEquals(2, snap.indexOf(2));
+        assertFalse(snap.contains(4));
+        assertEquals(6, snap.intStream().sum());
+        assertArrayEquals(new int[] {3, 1, 2}, snap.toArray(new int[0]));
+        assertThrows(IndexOutOfBoundsException.class, () -> snap.get(3));
+
+        IntCursor c = snap.cursor();
+        assertEquals(3, c.nextInt());
+        c.reset();
+        assertEquals(3, c.nextInt());
+
+        assertTrue(new IntArrayList().snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("snapshot is unaffected by every kind of later write")
+    void testIsolation() {
+        IntArrayList list = listOf(5, 4, 3, 2, 1);
+        IntArraySnapshot a = list.snapshot();
+
+        list.add(0);              // append past the snapshot
+        list.add(1, 9);           // insert inside it
+        IntArraySnapshot b = list.snapshot();
+        list.remove(0);
+        list.removeRange(0, 2);
+        list.sort();
+        list.addAll(0, new int[] {7, 7}, 0, 2);
+
+        assertEquals("5 4 3 2 1", a.toString());
+        assertEquals("5 9 4 3 2 1 0", b.toString());
+        assertEquals("7 7 0 1 2 3", list.toString());
+    }
+
+    @Test
+    @DisplayName("remove at the end, then append, does not leak into the snapshot")
+    void testReuseOfFreedSlot() {
+        IntArrayList list = listOf(1, 2, 3);
+        IntArraySnapshot snap = list.snapshot();
+
+        list.remove(2);  // no slot overwritten
+        list.add(99);    // would overwrite slot 2, which the snapshot still sees
+        assertEquals("1 2 3", snap.toString());
+        assertEquals("1 2 99", list.toString());
+
+        list.removeRange(1, 3);
+        list.addAll(new int[] {8, 8});
+        assertEquals("1 2 3", snap.toString());
+    }
+
+    @Test
+    @DisplayName("sorted flag is captured; sorting the list later leaves the view alone")
+    void testSorted() {
+        IntArrayList list = listOf(1, 3, 5);
+        IntArraySnapshot sorted = list.snapshot();
+        assertTrue(sorted.isSorted());
+        assertEquals(1, sorted.indexOf(3));
+
+        list.add(0, 9);
+        IntArraySnapshot unsorted = list.snapshot();
+        list.sort();
+        assertFalse(unsorted.isSorted());
+        assertEquals("9 1 3 5", unsorted.toString());
+        assertEquals(0, unsorted.indexOf(9));
+        assertEquals("1 3 5 9", list.toString());
+    }
+
+    @Test
+    @DisplayName("gap buffer: inserting where the gap already sits copies first")
+    void testGapBuffer() {
+        IntArrayList list = new IntArrayList();
+        list.setGapBuffer(true);
+        list.add(1);
+        IntArraySnapshot snap = list.snapshot();
+        list.removeRange(0, 1);
+        list.add(0, 4);    // the gap is already at 0, so no elements move
+        assertEquals("1", snap.toString());
+        assertEquals("4", list.toString());
+
+        list.addAll(new int[] {5, 6, 7});
+        IntArraySnapshot more = list.snapshot();
+        list.add(2, 8);
+        list.remove(2);    // gap stays at 2
+        list.add(2, 9);
+        list.remove(0);
+        list.add(0, 3);
+        assertEquals("4 5 6 7", more.toString());
+        assertEquals("3 5 9 6 7", list.toString());
+    }
+}
@@ -0,0 +1,624 @@
+import java.util.Arrays;
+
+/*
+ * A compressed set of ints for fast union, intersection and difference
+ * (a "Roaring" bitmap).
+ *
+ * Every int is split into a 16-bit high part (the key) and a 16-bit low part.
+ * All values sharing a key live in one container, which picks whichever of
+ * three layouts is smallest for its contents:
+ *   - array:  a sorted char[] of low parts (up to 4096 values),
+ *   - bitmap: 1024 longs, one bit per possible low part (8 KB),
+ *   - run:    a list of (start, length) ranges, for long consecutive stretches.
+ * Set operations walk the two sorted key lists together and only combine
+ * containers whose keys match, so sparse and dense regions are both cheap.
+ *
+ * Keys are stored with the sign bit flipped so that iterating keys in
+ * unsigned order yields the values in ordinary signed int order.
+ */
+public class IntBitmapSet {
+    private static final int ARRAY_MAX = 4096;   // past this a bitmap is never larger
+    private static final int BITMAP_WORDS = 1024; // 65536 bits
+
+    private char[] keys;
+    private Container[] containers;
+    private int count;
+
+    /*
+     * Creates an empty IntBitmapSet.
+     */
+    public IntBitmapSet() {
+        keys = new char[4];
+        containers = new Container[4];
+        count = 0;
+    }
+
+    /*
+     * Builds a set holding every distinct value in list. The list is not
+     * changed; if it is not known to be sorted, a sorted copy is made first.
+     *
+     * @param list The values to put in the set.
+     * @return A new set holding the distinct values of list.
+     */
+    public static IntBitmapSet fromList(IntArrayList list) {
+        int[] values = list.toArray(new int[0]);
+        if (!list.isSorted()) Arrays.sort(values);
+
+        IntBitmapSet set = new IntBitmapSet();
+        char[] lows = new char[Math.min(values.length, 1 << 16)];
+        int i = 0;
+        while (i < values.length) {
+            int high = values[i] >>> 16;
+            int n = 0;
+            for (; i < values.length && (values[i] >>> 16) == high; i++) {
+                char low = (char) values[i];
+                if (n == 0 || lows[n - 1] != low) lows[n++] = low;
+            }
+            set.append(key(values[i - 1]), Container.fromSortedLows(lows, n));
+        }
+        return set;
+    }
+
+    /*
+     * Returns the values of the set, in ascending order, as a new list
+     * (which is therefore flagged as sorted).
+     *
+     * @return A sorted IntArrayList holding every value in the set.
+     */
+    public IntArrayList toList() {
+        long card = cardinality();
+        if (card > Integer.MAX_VALUE - 8) throw new IllegalStateException("Set is too large for an IntArrayList.");
+
+        int[] values = new int[(int) card];
+        int pos = 0;
+        for (int k = 0; k < count; k++) pos = containers[k].toInts(values, pos, high(keys[k]));
+
+        IntArrayList list = new IntArrayList();
+        list.ensureCapacity(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    /*
+     * Adds a value to the set.
+     *
+     * @param e The value to add.
+     */
+    public void add(int e) {
+        char key = key(e);
+        int k = findKey(key);
+        if (k >= 0) {
+            containers[k] = containers[k].add((char) e);
+            return;
+        }
+        k = -k - 1;
+        ensureRoom(count + 1);
+        System.arraycopy(keys, k, keys, k + 1, count - k);
+        System.arraycopy(containers, k, containers, k + 1, count - k);
+        keys[k] = key;
+        containers[k] = new ArrayContainer(new char[] {(char) e}, 1);
+        count++;
+    }
+
+    /*
+     * Checks whether the set holds the given value.
+     *
+     * @param e The value to look for.
+     * @return true if e is in the set; false otherwise.
+     */
+    public boolean contains(int e) {
+        int k = findKey(key(e));
+        return k >= 0 && containers[k].contains((char) e);
+    }
+
+    /*
+     * Returns the number of values in the set.
+     *
+     * @return The cardinality of the set.
+     */
+    public long cardinality() {
+        long card = 0;
+        for (int k = 0; k < count; k++) card += containers[k].cardinality();
+        return card;
+    }
+
+    /*
+     * Checks whether the set holds no values.
+     *
+     * @return true if the set is empty; false otherwise.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /*
+     * Returns the intersection of this set and other. Neither set is changed.
+     *
+     * @param other The set to intersect with.
+     * @return A new set holding the values found in both sets.
+     */
+    public IntBitmapSet and(IntBitmapSet other) {
+        IntBitmapSet result = new IntBitmapSet();
+        long[] a = new long[BITMAP_WORDS];
+        long[] b = new long[BITMAP_WORDS];
+        int i = 0, j = 0;
+        while (i < count && j < other.count) {
+            int cmp = Character.compare(keys[i], other.keys[j]);
+            if (cmp < 0) {
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                Container c = Container.and(containers[i], other.containers[j], a, b);
+                if (c != null) result.append(keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Returns the union of this set and other. Neither set is changed.
+     *
+     * @param other The set to combine with.
+     * @return A new set holding the values found in either set.
+     */
+    public IntBitmapSet or(IntBitmapSet other) {
+        IntBitmapSet result = new IntBitmapSet();
+        long[] a = new long[BITMAP_WORDS];
+        long[] b = new long[BITMAP_WORDS];
+        int i = 0, j = 0;
+        while (i < count || j < other.count) {
+            int cmp = (i == count) ? 1 : (j == other.count) ? -1 : Character.compare(keys[i], other.keys[j]);
+            if (cmp < 0) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (cmp > 0) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], Container.or(containers[i], other.containers[j], a, b));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Returns the values of this set that are not in other. Neither set is changed.
+     *
+     * @param other The set whose values are taken away.
+     * @return A new set holding this set minus other.
+     */
+    public IntBitmapSet andNot(IntBitmapSet other) {
+        IntBitmapSet result = new IntBitmapSet();
+        long[] a = new long[BITMAP_WORDS];
+        long[] b = new long[BITMAP_WORDS];
+        int j = 0;
+        for (int i = 0; i < count; i++) {
+            while (j < other.count && other.keys[j] < keys[i]) j++;
+            if (j < other.count && other.keys[j] == keys[i]) {
+                Container c = Container.andNot(containers[i], other.containers[j], a, b);
+                if (c != null) result.append(keys[i], c);
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Returns the values of the set in ascending order, separated by one space.
+     *
+     * @return A space-separated string of the values.
+     */
+    public String toString() {
+        return toList().toString();
+    }
+
+    /*
+     * Returns how many containers use each layout, as "array/bitmap/run".
+     * Package-private; meant for tests and tuning.
+     */
+    String layoutSummary() {
+        int arrays = 0, bitmaps = 0, runs = 0;
+        for (int k = 0; k < count; k++) {
+            if (containers[k] instanceof ArrayContainer) arrays++;
+            else if (containers[k] instanceof BitmapContainer) bitmaps++;
+            else runs++;
+        }
+        return arrays + "/" + bitmaps + "/" + runs;
+    }
+
+    /*
+     * Adds a container whose key is larger than every key so far.
+     */
+    private void append(char key, Container c) {
+        ensureRoom(count + 1);
+        keys[count] = key;
+        containers[count] = c;
+        count++;
+    }
+
+    private void ensureRoom(int min) {
+        if (min <= keys.length) return;
+        int cap = Math.max(min, keys.length * 2);
+        keys = Arrays.copyOf(keys, cap);
+        containers = Arrays.copyOf(containers, cap);
+    }
+
+    /*
+     * Binary search over the keys; returns the index, or -(insertion point) - 1.
+     */
+    private int findKey(char key) {
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else if (keys[mid] > key) hi = mid - 1;
+            else return mid;
+        }
+        return -lo - 1;
+    }
+
+    private static char key(int v) {
+        return (char) ((v >>> 16) ^ 0x8000);
+    }
+
+    private static int high(char key) {
+        return (key ^ 0x8000) << 16;
+    }
+
+    /*
+     * The values sharing one key, stored as 16-bit low parts.
+     */
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        /*
+         * Returns the container with low added: this one, or a new one if the
+         * layout had to change.
+         */
+        abstract Container add(char low);
+
+        /*
+         * Sets the bit of every value in words (which is 1024 longs).
+         */
+        abstract void toWords(long[] words);
+
+        /*
+         * Writes high | low for every value, ascending, into out from pos;
+         * returns the position after the last one written.
+         */
+        abstract int toInts(int[] out, int pos, int high);
+
+        abstract Container copy();
+
+        static Container and(Container x, Container y, long[] a, long[] b) {
+            if (x instanceof ArrayContainer && y instanceof ArrayContainer) {
+                return ((ArrayContainer) x).intersect((ArrayContainer) y);
+            }
+            if (x instanceof ArrayContainer) return ((ArrayContainer) x).filter(y, true);
+            if (y instanceof ArrayContainer) return ((ArrayContainer) y).filter(x, true);
+
+            words(x, a);
+            words(y, b);
+            for (int w = 0; w < BITMAP_WORDS; w++) a[w] &= b[w];
+            return fromWords(a);
+        }
+
+        static Container or(Container x, Container y, long[] a, long[] b) {
+            if (x instanceof ArrayContainer && y instanceof ArrayContainer
+                    && x.cardinality() + y.cardinality() <= ARRAY_MAX) {
+                return ((ArrayContainer) x).union((ArrayContainer) y);
+            }
+            words(x, a);
+            words(y, b);
+            for (int w = 0; w < BITMAP_WORDS; w++) a[w] |= b[w];
+            return fromWords(a);
+        }
+
+        static Container andNot(Container x, Container y, long[] a, long[] b) {
+            if (x instanceof ArrayContainer) return ((ArrayContainer) x).filter(y, false);
+
+            words(x, a);
+            words(y, b);
+            for (int w = 0; w < BITMAP_WORDS; w++) a[w] &= ~b[w];
+            return fromWords(a);
+        }
+
+        private static void words(Container c, long[] words) {
+            Arrays.fill(words, 0L);
+            c.toWords(words);
+        }
+
+        /*
+         * Builds the smallest container for the bits in words, or returns
+         * null if no bit is set.
+         */
+        static Container fromWords(long[] words) {
+            int card = 0;
+            int runs = 0;
+            long carry = 0; // top bit of the previous word, moved to bit 0
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                card += Long.bitCount(word);
+                runs += Long.bitCount(word & ~((word << 1) | carry)); // run starts
+                carry = word >>> 63;
+            }
+            if (card == 0) return null;
+
+            if (4 * runs < Math.min(2 * card, 8 * BITMAP_WORDS)) {
+                char[] starts = new char[runs];
+                char[] lengths = new char[runs];
+                int r = 0;
+                int start = -1;
+                for (int v = 0; v <= 1 << 16; v++) {
+                    boolean set = v < 1 << 16 && (words[v >>> 6] & (1L << v)) != 0;
+                    if (set && start < 0) start = v;
+                    if (!set && start >= 0) {
+                        starts[r] = (char) start;
+                        lengths[r++] = (char) (v - start - 1);
+                        start = -1;
+                    }
+                }
+                return new RunContainer(starts, lengths, runs);
+            }
+            if (card <= ARRAY_MAX) {
+                char[] values = new char[card];
+                int n = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    for (long word = words[w]; word != 0; word &= word - 1) {
+                        values[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    }
+                }
+                return new ArrayContainer(values, n);
+            }
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        /*
+         * Builds the smallest container for lows[0..n-1] (sorted, distinct, n > 0).
+         */
+        static Container fromSortedLows(char[] lows, int n) {
+            int runs = 1;
+            for (int i = 1; i < n; i++) if (lows[i] != lows[i - 1] + 1) runs++;
+
+            if (4 * runs < Math.min(2 * n, 8 * BITMAP_WORDS)) {
+                char[] starts = new char[runs];
+                char[] lengths = new char[runs];
+                int r = 0;
+                int start = 0;
+                for (int i = 1; i <= n; i++) {
+                    if (i == n || lows[i] != lows[i - 1] + 1) {
+                        starts[r] = lows[start];
+                        lengths[r++] = (char) (i - start - 1);
+                        start = i;
+                    }
+                }
+                return new RunContainer(starts, lengths, runs);
+            }
+            if (n <= ARRAY_MAX) return new ArrayContainer(Arrays.copyOf(lows, n), n);
+
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < n; i++) words[lows[i] >>> 6] |= 1L << lows[i];
+            return new BitmapContainer(words, n);
+        }
+    }
+
+    /*
+     * Up to 4096 low parts in a sorted char[].
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int n;
+
+        ArrayContainer(char[] values, int n) {
+            this.values = values;
+            this.n = n;
+        }
+
+        int cardinality() {
+            return n;
+        }
+
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, n, low) >= 0;
+        }
+
+        Container add(char low) {
+            int i = Arrays.binarySearch(values, 0, n, low);
+            if (i >= 0) return this;
+            if (n == ARRAY_MAX) {
+                long[] words = new long[BITMAP_WORDS];
+                toWords(words);
+                words[low >>> 6] |= 1L << low;
+                return new BitmapContainer(words, n + 1);
+            }
+            i = -i - 1;
+            if (n == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, n * 2)));
+            System.arraycopy(values, i, values, i + 1, n - i);
+            values[i] = low;
+            n++;
+            return this;
+        }
+
+        void toWords(long[] words) {
+            for (int i = 0; i < n; i++) words[values[i] >>> 6] |= 1L << values[i];
+        }
+
+        int toInts(int[] out, int pos, int high) {
+            for (int i = 0; i < n; i++) out[pos++] = high | values[i];
+            return pos;
+        }
+
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, n), n);
+        }
+
+        /*
+         * Merge-style intersection of two sorted arrays.
+         */
+        Container intersect(ArrayContainer o) {
+            char[] out = new char[Math.min(n, o.n)];
+            int k = 0;
+            for (int i = 0, j = 0; i < n && j < o.n; ) {
+                if (values[i] < o.values[j]) i++;
+                else if (values[i] > o.values[j]) j++;
+                else { out[k++] = values[i]; i++; j++; }
+            }
+            return k == 0 ? null : new ArrayContainer(out, k);
+        }
+
+        /*
+         * Merge-style union; the caller makes sure the result fits an array.
+         */
+        Container union(ArrayContainer o) {
+            char[] out = new char[n + o.n];
+            int k = 0, i = 0, j = 0;
+            while (i < n && j < o.n) {
+                if (values[i] < o.values[j]) out[k++] = values[i++];
+                else if (values[i] > o.values[j]) out[k++] = o.values[j++];
+                else { out[k++] = values[i++]; j++; }
+            }
+            while (i < n) out[k++] = values[i++];
+            while (j < o.n) out[k++] = o.values[j++];
+            return new ArrayContainer(out, k);
+        }
+
+        /*
+         * Keeps the values that are (keep == true) or are not in other.
+         */
+        Container filter(Container other, boolean keep) {
+            char[] out = new char[n];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (other.contains(values[i]) == keep) out[k++] = values[i];
+            }
+            return k == 0 ? null : new ArrayContainer(out, k);
+        }
+    }
+
+    /*
+     * One bit for each of the 65536 possible low parts.
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int card;
+
+        BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        int cardinality() {
+            return card;
+        }
+
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        Container add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                card++;
+            }
+            return this;
+        }
+
+        void toWords(long[] out) {
+            for (int w = 0; w < BITMAP_WORDS; w++) out[w] |= words[w];
+        }
+
+        int toInts(int[] out, int pos, int high) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    out[pos++] = high | (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+            return pos;
+        }
+
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+    }
+
+    /*
+     * Sorted, non-touching ranges [start, start + length].
+     */
+    private static final class RunContainer extends Container {
+        private final char[] starts;
+        private final char[] lengths; // run length minus one, so a full 65536 run fits
+        private final int runs;
+
+        RunContainer(char[] starts, char[] lengths, int runs) {
+            this.starts = starts;
+            this.lengths = lengths;
+            this.runs = runs;
+        }
+
+        int cardinality() {
+            int card = runs;
+            for (int r = 0; r < runs; r++) card += lengths[r];
+            return card;
+        }
+
+        boolean contains(char low) {
+            int lo = 0, hi = runs - 1;
+            while (lo <= hi) { // last run starting at or before low
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] <= low) lo = mid + 1;
+                else hi = mid - 1;
+            }
+            return hi >= 0 && low - starts[hi] <= lengths[hi];
+        }
+
+        /*
+         * Adding into a run list is rare, so this goes through a bitmap and
+         * lets fromWords() pick the layout again.
+         */
+        Container add(char low) {
+            if (contains(low)) return this;
+            long[] words = new long[BITMAP_WORDS];
+            toWords(words);
+            words[low >>> 6] |= 1L << low;
+            return fromWords(words);
+        }
+
+        void toWords(long[] words) {
+            for (int r = 0; r < runs; r++) {
+                int from = starts[r];
+                int to = from + lengths[r] + 1; // exclusive
+                int fw = from >>> 6, tw = (to - 1) >>> 6;
+                long first = -1L << from;
+                long last = -1L >>> (63 - ((to - 1) & 63));
+                if (fw == tw) {
+                    words[fw] |= first & last;
+                } else {
+                    words[fw] |= first;
+                    for (int w = fw + 1; w < tw; w++) words[w] = -1L;
+                    words[tw] |= last;
+                }
+            }
+        }
+
+        int toInts(int[] out, int pos, int high) {
+            for (int r = 0; r < runs; r++) {
+                int end = starts[r] + lengths[r];
+                for (int v = starts[r]; v <= end; v++) out[pos++] = high | v;
+            }
+            return pos;
+        }
+
+        Container copy() {
+            return this; // never changed in place
+        }
+    }
+}
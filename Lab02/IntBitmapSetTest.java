@@ -0,0 +1,166 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class IntBitmapSetTest {
+
+    private static IntArrayList listOf(int... values) {
+        IntArrayList list = new IntArrayList();
+        list.addAll(values);
+        return list;
+    }
+
+    private static int[] sortedArray(TreeSet<Integer> set) {
+        int[] out = new int[set.size()];
+        int i = 0;
+        for (int v : set) out[i++] = v;
+        return out;
+    }
+
+    private static void assertSameSet(TreeSet<Integer> expected, IntBitmapSet actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        assertArrayEquals(sortedArray(expected), actual.toList().toArray(new int[0]));
+    }
+
+    /*
+     * A mix of sparse values, dense blocks and long runs, around zero and
+     * both ends of the int range, so every container layout shows up.
+     */
+    private static TreeSet<Integer> randomSet(Random rnd) {
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) set.add(rnd.nextInt());
+        for (int i = 0; i < 20000; i++) set.add(rnd.nextInt(1 << 17) - (1 << 16));
+        int start = rnd.nextInt(1 << 20);
+        for (int i = 0; i < 70000; i++) set.add(start + i);
+        for (int i = 0; i < 50; i++) set.add(Integer.MAX_VALUE - rnd.nextInt(100));
+        for (int i = 0; i < 50; i++) set.add(Integer.MIN_VALUE + rnd.nextInt(100));
+        return set;
+    }
+
+    @Test
+    @DisplayName("fromList()/toList(): distinct values in ascending order")
+    void testRoundTrip() {
+        IntBitmapSet set = IntBitmapSet.fromList(listOf(5, -3, 5, Integer.MIN_VALUE, 70000, -3, Integer.MAX_VALUE));
+        assertEquals(5, set.cardinality());
+        assertEquals(Integer.MIN_VALUE + " -3 5 70000 " + Integer.MAX_VALUE, set.toString());
+        assertTrue(set.toList().isSorted());
+        assertTrue(set.contains(70000));
+        assertFalse(set.contains(70001));
+
+        IntArrayList values = new IntArrayList();
+        for (int i = 0; i < 5000; i++) values.add(i * 3);
+        IntArrayList big = IntBitmapSet.fromList(values).toList();
+        assertEquals(5000, big.size());
+        big.clear(); // the default capacity, not the set's size
+        assertEquals(10, big.arraySize());
+
+        IntBitmapSet empty = IntBitmapSet.fromList(new IntArrayList());
+        assertTrue(empty.isEmpty());
+        assertEquals(0, empty.cardinality());
+        assertEquals("", empty.toString());
+    }
+
+    @Test
+    @DisplayName("containers pick array, bitmap or run layout")
+    void testLayouts() {
+        IntArrayList sparse = new IntArrayList();
+        for (int i = 0; i < 100; i++) sparse.add(i * 7);
+        assertEquals("1/0/0", IntBitmapSet.fromList(sparse).layoutSummary());
+
+        IntArrayList dense = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        for (int i = 0; i < 65536; i += 2) dense.add(i);
+        assertEquals("0/1/0", IntBitmapSet.fromList(dense).layoutSummary());
+
+        IntArrayList range = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        for (int i = 0; i < 65536; i++) range.add(i);
+        IntBitmapSet full = IntBitmapSet.fromList(range);
+        assertEquals("0/0/1", full.layoutSummary());
+        assertEquals(65536, full.cardinality());
+    }
+
+    @Test
+    @DisplayName("and/or/andNot agree with TreeSet on mixed layouts")
+    void testSetAlgebra() {
+        Random rnd = new Random(17);
+        for (int round = 0; round < 5; round++) {
+            TreeSet<Integer> a = randomSet(rnd);
+            TreeSet<Integer> b = randomSet(rnd);
+            IntArrayList la = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+            for (int v : a) la.add(v);
+            IntArrayList lb = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+            lb.addAll(sortedArray(b));
+            lb.sort();
+            int[] shuffled = lb.toArray(new int[0]);
+            for (int i = shuffled.length - 1; i > 0; i--) {
+                int j = rnd.nextInt(i + 1);
+                int t = shuffled[i]; shuffled[i] = shuffled[j]; shuffled[j] = t;
+            }
+            IntArrayList unsortedB = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+            unsortedB.addAll(shuffled);
+
+            IntBitmapSet sa = IntBitmapSet.fromList(la);
+            IntBitmapSet sb = IntBitmapSet.fromList(unsortedB);
+            assertSameSet(a, sa);
+            assertSameSet(b, sb);
+
+            TreeSet<Integer> and = new TreeSet<>(a);
+            and.retainAll(b);
+            TreeSet<Integer> or = new TreeSet<>(a);
+            or.addAll(b);
+            TreeSet<Integer> andNot = new TreeSet<>(a);
+            andNot.removeAll(b);
+
+            assertSameSet(and, sa.and(sb));
+            assertSameSet(or, sa.or(sb));
+            assertSameSet(andNot, sa.andNot(sb));
+            assertSameSet(a, sa); // operands unchanged
+            assertSameSet(b, sb);
+        }
+    }
+
+    @Test
+    @DisplayName("add(): grows containers and switches layout")
+    void testAdd() {
+        IntBitmapSet set = new IntBitmapSet();
+        TreeSet<Integer> ref = new TreeSet<>();
+        Random rnd = new Random(170);
+        for (int i = 0; i < 20000; i++) {
+            int v = (i % 2 == 0) ? rnd.nextInt(1 << 14) : rnd.nextInt(1 << 20) - (1 << 19);
+            set.add(v);
+            ref.add(v);
+        }
+        for (int i = 0; i < 5000; i++) {
+            set.add(1 << 24 | i);
+            ref.add(1 << 24 | i);
+        }
+        assertSameSet(ref, set);
+
+        IntBitmapSet range = IntBitmapSet.fromList(listOf(10, 11, 12, 13, 14, 15, 16, 17));
+        range.add(30);
+        range.add(12);
+        assertEquals("10 11 12 13 14 15 16 17 30", range.toString());
+    }
+
+    @Test
+    @DisplayName("set algebra over millions of IDs")
+    void testLargeSets() {
+        IntArrayList evens = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        IntArrayList thirds = new IntArrayList(GrowthPolicy.geometric(2.0, 16, 0.25));
+        for (int i = 0; i < 3_000_000; i++) {
+            evens.add(2 * i);
+            thirds.add(3 * i);
+        }
+        IntBitmapSet a = IntBitmapSet.fromList(evens);
+        IntBitmapSet b = IntBitmapSet.fromList(thirds);
+
+        assertEquals(1_000_000, a.and(b).cardinality());    // multiples of 6 below 6M
+        assertEquals(5_000_000, a.or(b).cardinality());
+        assertEquals(2_000_000, a.andNot(b).cardinality());
+        assertTrue(a.and(b).contains(600));
+        assertFalse(a.andNot(b).contains(600));
+        assertArrayEquals(new int[] {0, 6, 12}, Arrays.copyOf(a.and(b).toList().toArray(new int[0]), 3));
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.Arrays;
+
+/*
+ * Open-addressing hash table from an int value to the first and last index
+ * where it occurs in an IntArrayList. Keys are stored unboxed; a slot is
+ * empty when its first index is -1. Each index also links to the previous
+ * index holding the same value, so the last element can be removed in O(1).
+ * Used by IntArrayList.setHashIndex().
+ */
+class IntHashIndex {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] first;
+    private int[] last;
+    private int[] prev; // prev[i] = previous index holding the value at i, or -1
+    private int count;
+    private int mask;
+
+    /*
+     * Creates an empty index sized for about expected distinct values.
+     */
+    IntHashIndex(int expected) {
+        allocate(capacityFor(expected));
+        prev = new int[Math.max(expected, MIN_CAPACITY)];
+    }
+
+    /*
+     * Forgets everything and indexes data[0..size-1] from scratch.
+     */
+    void rebuild(int[] data, int size) {
+        int capacity = capacityFor(size);
+        if (capacity > keys.length || capacity * 4 < keys.length) {
+            allocate(capacity);
+        } else {
+            Arrays.fill(first, -1);
+            count = 0;
+        }
+        if (prev.length < size || prev.length > 4 * Math.max(size, MIN_CAPACITY)) {
+            prev = new int[Math.max(size, MIN_CAPACITY)];
+        }
+        for (int i = 0; i < size; i++) append(data[i], i);
+    }
+
+    /*
+     * Records that key now also occurs at index, which must be greater than
+     * every index recorded so far.
+     */
+    void append(int key, int index) {
+        if (index >= prev.length) prev = Arrays.copyOf(prev, Math.max(index + 1, prev.length * 2));
+        int slot = slot(key);
+        if (first[slot] >= 0) {
+            prev[index] = last[slot];
+            last[slot] = index;
+            return;
+        }
+        prev[index] = -1;
+        keys[slot] = key;
+        first[slot] = index;
+        last[slot] = index;
+        count++;
+        if (count * 2 > keys.length) grow();
+    }
+
+    /*
+     * Forgets that key occurs at index, which must be the greatest index
+     * recorded so far (the list's last element is being removed).
+     */
+    void removeLast(int key, int index) {
+        int slot = slot(key);
+        if (first[slot] != index) {
+            last[slot] = prev[index];
+            return;
+        }
+
+        // index was the only occurrence: empty the slot, then move back any
+        // later entry of the probe run that could no longer be found
+        first[slot] = -1;
+        count--;
+        for (int j = (slot + 1) & mask; first[j] >= 0; j = (j + 1) & mask) {
+            int home = home(keys[j]);
+            boolean reachable = (slot <= j) ? (slot < home && home <= j) : (slot < home || home <= j);
+            if (reachable) continue;
+            keys[slot] = keys[j];
+            first[slot] = first[j];
+            last[slot] = last[j];
+            first[j] = -1;
+            slot = j;
+        }
+    }
+
+    /*
+     * Returns the first index of key, or -1 if it is not indexed.
+     */
+    int first(int key) {
+        return first[slot(key)];
+    }
+
+    /*
+     * Returns the last index of key, or -1 if it is not indexed.
+     */
+    int last(int key) {
+        int slot = slot(key);
+        return (first[slot] >= 0) ? last[slot] : -1;
+    }
+
+    /*
+     * Returns the slot holding key, or the empty slot where it would go.
+     * Linear probing; the table is never more than half full.
+     */
+    private int slot(int key) {
+        int i = home(key);
+        while (first[i] >= 0 && keys[i] != key) i = (i + 1) & mask;
+        return i;
+    }
+
+    /*
+     * Returns the slot where probing for key starts.
+     */
+    private int home(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldFirst = first;
+        int[] oldLast = last;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldFirst[i] < 0) continue;
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            first[slot] = oldFirst[i];
+            last[slot] = oldLast[i];
+            count++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        first = new int[capacity];
+        last = new int[capacity];
+        Arrays.fill(first, -1);
+        mask = capacity - 1;
+        count = 0;
+    }
+
+    /*
+     * Returns a power of two at least twice expected.
+     */
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * expected && capacity < (1 << 30)) capacity <<= 1;
+        return capacity;
+    }
+}
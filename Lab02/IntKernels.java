@@ -0,0 +1,165 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/*
+ * The loops behind IntArrayList's aggregates, each over a[0..n-1].
+ *
+ * When the compiled class simd.IntVectorKernels is on the class path and the
+ * JVM runs with --add-modules jdk.incubator.vector, the loops use it: explicit
+ * SIMD through the Vector API. Otherwise (or with -DIntArrayList.vector=false)
+ * the plain loops below are used, which HotSpot may still auto-vectorize.
+ * The choice is made once, when this class is loaded. Lab02 itself never
+ * refers to the Vector API, so it compiles and runs without the module.
+ */
+final class IntKernels {
+    private static final MethodType SUM_TYPE = MethodType.methodType(long.class, int[].class, int.class);
+    private static final MethodType MIN_MAX_TYPE = MethodType.methodType(int.class, int[].class, int.class);
+    private static final MethodType SEARCH_TYPE = MethodType.methodType(int.class, int[].class, int.class, int.class);
+
+    // static final, so the JIT inlines the chosen method into every call
+    private static final MethodHandle SUM;
+    private static final MethodHandle MIN;
+    private static final MethodHandle MAX;
+    private static final MethodHandle COUNT_EQUALS;
+    private static final MethodHandle INDEX_OF;
+
+    /*
+     * true if the Vector API kernels were loaded.
+     */
+    static final boolean VECTORIZED;
+
+    static {
+        Class<?> kernels = vectorKernels();
+        VECTORIZED = kernels != null;
+        if (kernels == null) kernels = IntKernels.class;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            String prefix = VECTORIZED ? "" : "scalar";
+            SUM = lookup.findStatic(kernels, name(prefix, "sum"), SUM_TYPE);
+            MIN = lookup.findStatic(kernels, name(prefix, "min"), MIN_MAX_TYPE);
+            MAX = lookup.findStatic(kernels, name(prefix, "max"), MIN_MAX_TYPE);
+            COUNT_EQUALS = lookup.findStatic(kernels, name(prefix, "countEquals"), SEARCH_TYPE);
+            INDEX_OF = lookup.findStatic(kernels, name(prefix, "indexOf"), SEARCH_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private IntKernels() {
+    }
+
+    /*
+     * Returns the sum of a[0..n-1], without int overflow.
+     */
+    static long sum(int[] a, int n) {
+        try {
+            return (long) SUM.invokeExact(a, n);
+        } catch (Throwable t) {
+            throw unchecked(t);
+        }
+    }
+
+    /*
+     * Returns the smallest of a[0..n-1] (n > 0).
+     */
+    static int min(int[] a, int n) {
+        try {
+            return (int) MIN.invokeExact(a, n);
+        } catch (Throwable t) {
+            throw unchecked(t);
+        }
+    }
+
+    /*
+     * Returns the largest of a[0..n-1] (n > 0).
+     */
+    static int max(int[] a, int n) {
+        try {
+            return (int) MAX.invokeExact(a, n);
+        } catch (Throwable t) {
+            throw unchecked(t);
+        }
+    }
+
+    /*
+     * Returns how many of a[0..n-1] equal e.
+     */
+    static int countEquals(int[] a, int n, int e) {
+        try {
+            return (int) COUNT_EQUALS.invokeExact(a, n, e);
+        } catch (Throwable t) {
+            throw unchecked(t);
+        }
+    }
+
+    /*
+     * Returns the first index in a[0..n-1] holding e, or -1.
+     */
+    static int indexOf(int[] a, int n, int e) {
+        try {
+            return (int) INDEX_OF.invokeExact(a, n, e);
+        } catch (Throwable t) {
+            throw unchecked(t);
+        }
+    }
+
+    static long scalarSum(int[] a, int n) {
+        long s = 0;
+        for (int i = 0; i < n; i++) s += a[i];
+        return s;
+    }
+
+    static int scalarMin(int[] a, int n) {
+        int m = a[0];
+        for (int i = 1; i < n; i++) {
+            if (a[i] < m) m = a[i];
+        }
+        return m;
+    }
+
+    static int scalarMax(int[] a, int n) {
+        int m = a[0];
+        for (int i = 1; i < n; i++) {
+            if (a[i] > m) m = a[i];
+        }
+        return m;
+    }
+
+    static int scalarCountEquals(int[] a, int n, int e) {
+        int count = 0;
+        for (int i = 0; i < n; i++) count += (a[i] == e) ? 1 : 0;
+        return count;
+    }
+
+    static int scalarIndexOf(int[] a, int n, int e) {
+        for (int i = 0; i < n; i++) {
+            if (a[i] == e) return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Loads simd.IntVectorKernels, or returns null if it is not compiled,
+     * the jdk.incubator.vector module is missing, or it is switched off.
+     */
+    private static Class<?> vectorKernels() {
+        if (!Boolean.parseBoolean(System.getProperty("IntArrayList.vector", "true"))) return null;
+        try {
+            return Class.forName("simd.IntVectorKernels");
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static String name(String prefix, String method) {
+        if (prefix.isEmpty()) return method;
+        return prefix + Character.toUpperCase(method.charAt(0)) + method.substring(1);
+    }
+
+    private static RuntimeException unchecked(Throwable t) {
+        if (t instanceof RuntimeException) return (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,94 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ConcurrentModificationException;
+
+public class LongArrayListTest {
+
+    @Test
+    @DisplayName("constructor + growth: same rules as IntArrayList")
+    void testGrowth() {
+        LongArrayList list = new LongArrayList();
+        assertEquals(10, list.arraySize());
+        for (int i = 0; i < 11; i++) list.add(i);
+        assertEquals(20, list.arraySize());
+
+        list.remove(0);
+        list.remove(0); // empty 11 -> shrink to size + 10
+        assertEquals(19, list.arraySize());
+
+        LongArrayList geo = new LongArrayList(4, GrowthPolicy.geometric(2.0, 4, 0.25));
+        for (int i = 0; i < 5; i++) geo.add(i);
+        assertEquals(8, geo.arraySize());
+    }
+
+    @Test
+    @DisplayName("values beyond int range survive add/get/remove/toString")
+    void testLongValues() {
+        LongArrayList list = new LongArrayList();
+        list.add(Long.MAX_VALUE);
+        list.add(0, Long.MIN_VALUE);
+        list.add(1, 1L << 40);
+        assertEquals("-9223372036854775808 1099511627776 9223372036854775807", list.toString());
+        assertEquals(1L << 40, list.remove(1));
+        assertEquals(Long.MAX_VALUE, list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+    }
+
+    @Test
+    @DisplayName("bulk addAll/removeRange/toArray")
+    void testBulk() {
+        LongArrayList list = new LongArrayList();
+        list.addAll(new long[] {1, 2, 3});
+        list.addAll(1, new long[] {7, 8, 9}, 1, 2);
+        list.addAll(list);
+        assertEquals("1 8 9 2 3 1 8 9 2 3", list.toString());
+
+        list.removeRange(1, 9);
+        assertArrayEquals(new long[] {1, 3}, list.toArray(new long[0]));
+    }
+
+    @Test
+    @DisplayName("sort, search, aggregates")
+    void testSortAndSearch() {
+        LongArrayList list = new LongArrayList();
+        list.addAll(new long[] {5, Long.MAX_VALUE, -1, 5, Long.MAX_VALUE});
+        assertFalse(list.isSorted());
+        assertEquals(1, list.indexOf(Long.MAX_VALUE));
+
+        list.sort();
+        assertEquals("-1 5 5 9223372036854775807 9223372036854775807", list.toString());
+        assertEquals(1, list.binarySearch(5));
+        assertEquals(-2, list.binarySearch(0));
+        assertEquals(2, list.countEquals(Long.MAX_VALUE));
+        assertEquals(-1, list.min());
+        assertEquals(Long.MAX_VALUE, list.max());
+
+        LongArrayList small = new LongArrayList();
+        small.addAll(new long[] {1L << 40, -3, 1L << 40});
+        assertEquals((1L << 41) - 3, small.sum());
+    }
+
+    @Test
+    @DisplayName("cursors, streams and legacy next()")
+    void testCursorsAndStreams() throws Exception {
+        LongArrayList list = new LongArrayList();
+        list.addAll(new long[] {10, 20, 30});
+
+        LongCursor c = list.cursor();
+        assertEquals(10, c.nextLong());
+        list.add(40);
+        assertThrows(ConcurrentModificationException.class, () -> c.nextLong());
+        c.reset();
+        long sum = 0;
+        while (c.hasNext()) sum += c.nextLong();
+        assertEquals(100, sum);
+
+        assertEquals(100, list.longStream().sum());
+        assertEquals(100, list.parallelLongStream().sum());
+
+        assertEquals(10, list.next());
+        list.reset();
+        assertEquals(10, list.next());
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * A position in a list of longs that can be moved forward one element at a
+ * time. Unlike LongArrayList.next(), running off the end is checked with
+ * hasNext() instead of a thrown exception, and reset() rewinds the cursor
+ * so the same object can be reused for another pass.
+ */
+public interface LongCursor {
+
+    /*
+     * Checks whether there is another element to return.
+     *
+     * @return true if nextLong() will return an element; false otherwise.
+     */
+    boolean hasNext();
+
+    /*
+     * Returns the element at the cursor and moves the cursor forward.
+     *
+     * @return The next long in iteration order.
+     * @throws java.util.NoSuchElementException If there are no more elements.
+     * @throws java.util.ConcurrentModificationException If the list was
+     *         structurally modified since the cursor was created or reset.
+     */
+    long nextLong();
+
+    /*
+     * Moves the cursor back to the first element and accepts any changes
+     * made to the list so far.
+     */
+    void reset();
+}
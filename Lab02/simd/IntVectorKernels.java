@@ -0,0 +1,114 @@
+package simd;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * Vector API versions of the IntKernels loops, each over a[0..n-1]. They
+ * work on IntVector.SPECIES_PREFERRED (8 ints with AVX2, 16 with AVX-512)
+ * and finish the last partial vector with a scalar loop.
+ *
+ * This class needs the incubating jdk.incubator.vector module, so it lives
+ * in its own package and is compiled and run separately:
+ *
+ *     javac --add-modules jdk.incubator.vector -d . simd/IntVectorKernels.java
+ *     java --add-modules jdk.incubator.vector ...
+ *
+ * IntKernels loads it by name and falls back to plain loops without it.
+ */
+public final class IntVectorKernels {
+    private static final VectorSpecies<Integer> S = IntVector.SPECIES_PREFERRED;
+    // sum() adds 16-bit halves in int lanes; after this many vectors the
+    // lanes added together still fit in an int
+    private static final int SUM_BLOCK = Math.max(1, (1 << 15) / S.length()) * S.length();
+
+    private IntVectorKernels() {
+    }
+
+    /*
+     * Returns the sum of a[0..n-1]. Each int is split into its low 16 bits
+     * and the rest, which are summed in int lanes (no widening to long) and
+     * combined every SUM_BLOCK elements.
+     */
+    public static long sum(int[] a, int n) {
+        int upper = S.loopBound(n);
+        long total = 0;
+        int i = 0;
+        while (i < upper) {
+            int end = (int) Math.min(upper, (long) i + SUM_BLOCK);
+            IntVector low = IntVector.zero(S);
+            IntVector high = IntVector.zero(S);
+            for (; i < end; i += S.length()) {
+                IntVector v = IntVector.fromArray(S, a, i);
+                low = low.add(v.and(0xFFFF));
+                high = high.add(v.lanewise(VectorOperators.ASHR, 16));
+            }
+            total += ((long) high.reduceLanes(VectorOperators.ADD) << 16) + low.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < n; i++) total += a[i];
+        return total;
+    }
+
+    /*
+     * Returns the smallest of a[0..n-1] (n > 0).
+     */
+    public static int min(int[] a, int n) {
+        int upper = S.loopBound(n);
+        IntVector m = IntVector.broadcast(S, Integer.MAX_VALUE);
+        int i = 0;
+        for (; i < upper; i += S.length()) m = m.min(IntVector.fromArray(S, a, i));
+        int result = m.reduceLanes(VectorOperators.MIN);
+        for (; i < n; i++) result = Math.min(result, a[i]);
+        return result;
+    }
+
+    /*
+     * Returns the largest of a[0..n-1] (n > 0).
+     */
+    public static int max(int[] a, int n) {
+        int upper = S.loopBound(n);
+        IntVector m = IntVector.broadcast(S, Integer.MIN_VALUE);
+        int i = 0;
+        for (; i < upper; i += S.length()) m = m.max(IntVector.fromArray(S, a, i));
+        int result = m.reduceLanes(VectorOperators.MAX);
+        for (; i < n; i++) result = Math.max(result, a[i]);
+        return result;
+    }
+
+    /*
+     * Returns how many of a[0..n-1] equal e. Matches are counted per lane
+     * and the lanes added up once at the end.
+     */
+    public static int countEquals(int[] a, int n, int e) {
+        int upper = S.loopBound(n);
+        IntVector key = IntVector.broadcast(S, e);
+        IntVector one = IntVector.broadcast(S, 1);
+        IntVector counts = IntVector.zero(S);
+        int i = 0;
+        for (; i < upper; i += S.length()) {
+            counts = counts.add(one, IntVector.fromArray(S, a, i).compare(VectorOperators.EQ, key));
+        }
+        int count = counts.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) count += (a[i] == e) ? 1 : 0;
+        return count;
+    }
+
+    /*
+     * Returns the first index in a[0..n-1] holding e, or -1.
+     */
+    public static int indexOf(int[] a, int n, int e) {
+        int upper = S.loopBound(n);
+        IntVector key = IntVector.broadcast(S, e);
+        int i = 0;
+        for (; i < upper; i += S.length()) {
+            VectorMask<Integer> hit = IntVector.fromArray(S, a, i).compare(VectorOperators.EQ, key);
+            if (hit.anyTrue()) return i + hit.firstTrue();
+        }
+        for (; i < n; i++) {
+            if (a[i] == e) return i;
+        }
+        return -1;
+    }
+}
@@ -8,9 +8,20 @@
  */
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
 
 public class CustomerReviewArrayList {
     private ArrayList<CustomerReview> reviews;
+    // Index of the first review for each customer name. Removing from the
+    // middle shifts later indices, so the map is then marked stale. Lookups
+    // on a stale map scan the list, like a list without the map would, and
+    // the map is only rebuilt after REBUILD_AFTER lookups in a row, so a loop
+    // that removes as often as it looks up never pays for rebuilding.
+    private static final int REBUILD_AFTER = 16;
+    private HashMap<String, Integer> firstIndex;
+    private boolean indexStale;
+    private int staleLookups;
     
     /**
      * Creates a new empty CustomerReviewArrayList.
@@ -18,6 +29,7 @@ public class CustomerReviewArrayList {
      */
     public CustomerReviewArrayList() {
         reviews = new ArrayList<CustomerReview>();
+        firstIndex = new HashMap<String, Integer>();
     }
     
     /**
@@ -27,6 +39,9 @@ public class CustomerReviewArrayList {
      */
     public void add(CustomerReview review) {
         reviews.add(review);
+        if (!indexStale) {
+            firstIndex.putIfAbsent(review.getCustomerName(), reviews.size() - 1);
+        }
     }
     
     /**
@@ -58,7 +73,93 @@ public class CustomerReviewArrayList {
      * @throws IndexOutOfBoundsException if the index is out of range
      */
     public CustomerReview remove(int index) {
-        return reviews.remove(index);
+        CustomerReview removed = reviews.remove(index);
+        if (index < reviews.size()) {
+            indexStale = true;
+            staleLookups = 0;
+        } else if (!indexStale) {
+            // the last review: no index shifts, and if it was the first one
+            // with its name there are no others
+            firstIndex.remove(removed.getCustomerName(), index);
+        }
+        return removed;
+    }
+    
+    /**
+     * Returns the index of the first review written by the given customer.
+     * Runs in constant time, except after a review was removed from the
+     * middle of the list: then the list is scanned from the start, until
+     * enough lookups in a row make it worth reindexing the whole list.
+     * 
+     * @param name the customer name to look for
+     * @return the index of the first review with that customer name, or -1 if there is none
+     */
+    public int indexOf(String name) {
+        if (indexStale) {
+            if (++staleLookups < REBUILD_AFTER) {
+                return scan(name);
+            }
+            rebuildIndex();
+        }
+        Integer index = firstIndex.get(name);
+        return index == null ? -1 : index;
+    }
+    
+    /**
+     * Finds the first review written by the given customer.
+     * 
+     * @param name the customer name to look for
+     * @return the first CustomerReview with that customer name, or null if there is none
+     */
+    public CustomerReview findByName(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : reviews.get(index);
+    }
+    
+    /**
+     * Removes the first review written by the given customer.
+     * All subsequent reviews are shifted to the left (their indices decrease by one).
+     * 
+     * @param name the customer name to look for
+     * @return the CustomerReview that was removed, or null if there was none with that name
+     */
+    public CustomerReview removeByName(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : remove(index);
+    }
+    
+    /**
+     * Checks if this list contains a review equal to the given one, that is,
+     * a review by the same customer.
+     * 
+     * @param review the CustomerReview to look for
+     * @return true if a review with the same customer name is in the list, false otherwise
+     */
+    public boolean contains(CustomerReview review) {
+        return review != null && indexOf(review.getCustomerName()) >= 0;
+    }
+    
+    /**
+     * Finds the first review with the given name by looking at every review in turn.
+     */
+    private int scan(String name) {
+        for (int i = 0; i < reviews.size(); i++) {
+            if (Objects.equals(reviews.get(i).getCustomerName(), name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Refills the name index from the list, keeping the first index of each name.
+     */
+    private void rebuildIndex() {
+        firstIndex.clear();
+        for (int i = 0; i < reviews.size(); i++) {
+            firstIndex.putIfAbsent(reviews.get(i).getCustomerName(), i);
+        }
+        indexStale = false;
     }
     
     /**
@@ -9,6 +9,7 @@
 import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
+import java.util.Random;
 
 public class CustomerReviewTest {
     private CustomerReview review1;
@@ -225,4 +226,75 @@ public class CustomerReviewTest {
         assertTrue(vipReview1.equals(vipReview1));
         assertTrue(list1.equals(list1));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Tests that indexOf() and findByName() return the first review with a name,
+     * and nothing for a name that is not in the list.
+     */
+    @Test
+    public void testArrayListFindByName() {
+        list1.add(review1);
+        list1.add(review3);
+        list1.add(review2);
+        assertEquals(0, list1.indexOf("Bob"));
+        assertEquals(1, list1.indexOf("Alice"));
+        assertEquals(-1, list1.indexOf("Charlie"));
+        assertSame(review1, list1.findByName("Bob"));
+        assertNull(list1.findByName("Charlie"));
+        assertTrue(list1.contains(new CustomerReview("Alice", "Other text")));
+        assertFalse(list1.contains(new CustomerReview("Charlie", "Amazing")));
+    }
+    
+    /**
+     * Tests that lookups by name stay correct after removals shift the reviews.
+     */
+    @Test
+    public void testArrayListRemoveByName() {
+        list1.add(review1);
+        list1.add(review3);
+        list1.add(review2);
+        assertSame(review1, list1.removeByName("Bob"));
+        assertEquals(0, list1.indexOf("Alice"));
+        assertEquals(1, list1.indexOf("Bob"));
+        assertSame(review2, list1.findByName("Bob"));
+        assertNull(list1.removeByName("Charlie"));
+        
+        list1.remove(1);
+        assertFalse(list1.contains(review2));
+        list1.add(review2);
+        assertEquals(1, list1.indexOf("Bob"));
+        assertSame(review3, list1.removeByName("Alice"));
+        assertEquals(0, list1.indexOf("Bob"));
+        assertEquals(1, list1.size());
+    }
+    
+    /**
+     * Tests removeByName() and indexOf() interleaved, and runs of lookups long
+     * enough to reindex the list, against a search of every review.
+     */
+    @Test
+    public void testArrayListRemoveByNameInterleaved() {
+        Random random = new Random(25);
+        for (int i = 0; i < 300; i++) {
+            list1.add(new CustomerReview("c" + random.nextInt(60), "review " + i));
+        }
+        for (int round = 0; round < 400; round++) {
+            String name = "c" + random.nextInt(70);
+            int expected = -1;
+            for (int i = 0; i < list1.size() && expected < 0; i++) {
+                if (list1.get(i).getCustomerName().equals(name)) {
+                    expected = i;
+                }
+            }
+            if (round % 50 < 30) {
+                CustomerReview first = expected < 0 ? null : list1.get(expected);
+                assertSame(first, list1.removeByName(name));
+            } else {
+                assertEquals(expected, list1.indexOf(name));
+                if (round % 7 == 0) {
+                    list1.add(new CustomerReview(name, "again"));
+                }
+            }
+        }
+    }
+}